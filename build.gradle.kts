@@ -22,6 +22,9 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-mongodb-reactive")
     implementation("org.springframework.kafka:spring-kafka")
 
+    // In-process caches (W-TinyLFU eviction)
+    implementation("com.github.ben-manes.caffeine:caffeine")
+
     // Embedded MongoDB
     implementation("de.flapdoodle.embed:de.flapdoodle.embed.mongo.spring3x:4.23.0")
 
@@ -36,3 +39,19 @@ dependencies {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// JSON vs binary ForumEvent encoding, see ForumEventCodecBenchmark
+tasks.register<JavaExec>("codecBenchmark") {
+    group = "verification"
+    description = "Compares bytes per event and encode/decode ns/op of the JSON and binary ForumEvent formats."
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass = "com.forum.event.ForumEventCodecBenchmark"
+}
+
+// Full Question vs QuestionSummary list responses, see QuestionSummaryBenchmark
+tasks.register<JavaExec>("summaryBenchmark") {
+    group = "verification"
+    description = "Compares bytes per response and serialization time of full and summary question lists."
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass = "com.forum.model.QuestionSummaryBenchmark"
+}
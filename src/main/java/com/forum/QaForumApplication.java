@@ -3,8 +3,10 @@ package com.forum;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = { KafkaAutoConfiguration.class })
+@EnableScheduling
 public class QaForumApplication {
 
     public static void main(String[] args) {
@@ -1,6 +1,7 @@
 package com.forum.activity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -8,6 +9,7 @@ import java.time.Instant;
 import java.util.Map;
 
 @Document(collection = "activity_logs")
+@CompoundIndex(name = "userId_timestamp_id", def = "{'userId': 1, 'timestamp': -1, '_id': -1}")
 public class ActivityLog {
 
     @Id
@@ -0,0 +1,194 @@
+package com.forum.activity;
+
+import com.forum.stats.StatsProvider;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded write-behind buffer for activity log entries.
+ * Entries are queued in memory and written with bulk inserts, either when
+ * a full batch is waiting or on the periodic flush tick.
+ *
+ * Overflow policy when the queue is under pressure:
+ * - DROP:   accept until full, then drop new entries
+ * - SAMPLE: above the high-water mark keep only 1 in sampleRate entries,
+ *           drop everything once full
+ */
+@Component
+public class ActivityLogBuffer implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogBuffer.class);
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+    private static final long SHUTDOWN_POLL_NANOS = Duration.ofMillis(10).toNanos();
+
+    public enum OverflowPolicy {
+        DROP,
+        SAMPLE
+    }
+
+    private final ActivityLogRepository activityLogRepository;
+    private final BlockingQueue<ActivityLog> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final int highWaterMark;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private final AtomicLong sampleCounter = new AtomicLong(0);
+
+    private final AtomicLong queuedCount = new AtomicLong(0);
+    private final AtomicLong flushedCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private final AtomicLong failedCount = new AtomicLong(0);
+    private final AtomicLong batchCount = new AtomicLong(0);
+
+    public ActivityLogBuffer(ActivityLogRepository activityLogRepository,
+                             @Value("${forum.activityLog.bufferCapacity:10000}") int capacity,
+                             @Value("${forum.activityLog.batchSize:500}") int batchSize,
+                             @Value("${forum.activityLog.overflowPolicy:SAMPLE}") OverflowPolicy overflowPolicy,
+                             @Value("${forum.activityLog.sampleRate:10}") int sampleRate) {
+        this.activityLogRepository = activityLogRepository;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.highWaterMark = capacity * 8 / 10;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Queue an entry for the next bulk insert. Never blocks the caller.
+     *
+     * @return false if the entry was dropped by the overflow policy
+     */
+    public boolean offer(ActivityLog entry) {
+        if (overflowPolicy == OverflowPolicy.SAMPLE
+                && queue.size() >= highWaterMark
+                && sampleCounter.getAndIncrement() % sampleRate != 0) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+
+        if (!queue.offer(entry)) {
+            droppedCount.incrementAndGet();
+            log.debug("Activity buffer full, dropping entry: type={}", entry.getActivityType());
+            return false;
+        }
+
+        queuedCount.incrementAndGet();
+        if (queue.size() >= batchSize) {
+            triggerFlush();
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${forum.activityLog.flushIntervalMs:1000}")
+    public void scheduledFlush() {
+        if (!queue.isEmpty()) {
+            triggerFlush();
+        }
+    }
+
+    /**
+     * Start a flush unless one is already running. Only one flush drains the
+     * queue at a time, so a burst never fans out into parallel inserts.
+     */
+    private void triggerFlush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        drainBatches()
+                .doFinally(signal -> flushing.set(false))
+                .subscribe();
+    }
+
+    private Mono<Void> drainBatches() {
+        return Mono.defer(() -> {
+            List<ActivityLog> batch = new ArrayList<>(batchSize);
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                return Mono.empty();
+            }
+
+            return activityLogRepository.insert(batch)
+                    .count()
+                    .doOnNext(inserted -> {
+                        flushedCount.addAndGet(inserted);
+                        batchCount.incrementAndGet();
+                        log.debug("Activity batch flushed: size={}", inserted);
+                    })
+                    .onErrorResume(error -> {
+                        failedCount.addAndGet(batch.size());
+                        log.error("Failed to flush activity batch: size={}", batch.size(), error);
+                        return Mono.empty();
+                    })
+                    .then(drainBatches());
+        });
+    }
+
+    /**
+     * Final drain on shutdown. Waits for a flush that is already in flight to
+     * finish and then holds the flushing flag itself, so the last entries are
+     * never written by two drains at once.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        long deadline = System.nanoTime() + SHUTDOWN_FLUSH_TIMEOUT.toNanos();
+        while (!flushing.compareAndSet(false, true)) {
+            if (System.nanoTime() >= deadline) {
+                log.error("Activity buffer flush still running at shutdown, remaining={}", queue.size());
+                return;
+            }
+            LockSupport.parkNanos(SHUTDOWN_POLL_NANOS);
+        }
+
+        try {
+            int pending = queue.size();
+            if (pending == 0) {
+                return;
+            }
+            log.info("Flushing {} buffered activity entries before shutdown", pending);
+            drainBatches().block(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        } catch (Exception e) {
+            log.error("Activity buffer shutdown flush did not complete, remaining={}", queue.size(), e);
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @Override
+    public String statsName() {
+        return "activity-buffer";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queuedCount.get());
+        stats.put("flushed", flushedCount.get());
+        stats.put("dropped", droppedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("batches", batchCount.get());
+        stats.put("pending", queue.size());
+        stats.put("capacity", capacity);
+        stats.put("overflowPolicy", overflowPolicy.name());
+        return stats;
+    }
+}
@@ -1,7 +1,10 @@
 package com.forum.activity;
 
+import com.forum.model.CursorPage;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/activity")
@@ -13,9 +16,25 @@ public class ActivityLogController {
         this.activityLogService = activityLogService;
     }
 
+    // One keyset page by default; the full history is the NDJSON export below
     @GetMapping("/{userId}")
-    public Flux<ActivityLog> getUserActivity(@PathVariable String userId) {
-        return activityLogService.getUserActivity(userId);
+    public Mono<CursorPage<ActivityLog>> getUserActivity(@PathVariable String userId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit) {
+        return activityLogService.getUserActivityPage(userId, cursor, limit);
+    }
+
+    @GetMapping(value = "/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ActivityLog> streamUserActivity(@PathVariable String userId) {
+        return activityLogService.getUserActivity(userId)
+                .limitRate(256);
+    }
+
+    @GetMapping("/{userId}/page")
+    public Mono<CursorPage<ActivityLog>> getUserActivityPage(@PathVariable String userId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit) {
+        return activityLogService.getUserActivityPage(userId, cursor, limit);
     }
 
     @GetMapping("/{userId}/today")
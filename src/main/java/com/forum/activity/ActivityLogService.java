@@ -1,29 +1,38 @@
 package com.forum.activity;
 
+import com.forum.model.CursorPage;
+import com.forum.service.KeysetPager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.Map;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 @Service
 public class ActivityLogService {
 
     private static final Logger log = LoggerFactory.getLogger(ActivityLogService.class);
 
     private final ActivityLogRepository activityLogRepository;
+    private final ActivityLogBuffer activityLogBuffer;
+    private final KeysetPager keysetPager;
 
-    public ActivityLogService(ActivityLogRepository activityLogRepository) {
+    public ActivityLogService(ActivityLogRepository activityLogRepository,
+                              ActivityLogBuffer activityLogBuffer,
+                              KeysetPager keysetPager) {
         this.activityLogRepository = activityLogRepository;
+        this.activityLogBuffer = activityLogBuffer;
+        this.keysetPager = keysetPager;
     }
 
-
+    // Entries go to the write-behind buffer and are bulk inserted in batches
     public void log(String userId, ActivityType type, String description,
                     String resourceId, Map<String, String> metadata) {
         ActivityLog entry = new ActivityLog();
@@ -33,14 +42,9 @@ public class ActivityLogService {
         entry.setResourceId(resourceId);
         entry.setMetadata(metadata);
 
-        activityLogRepository.save(entry)
-                .subscribeOn(Schedulers.boundedElastic())
-                .subscribe(
-                        saved -> log.debug("Activity logged: user={}, type={}, resource={}",
-                                userId, type, resourceId),
-                        error -> log.error("Failed to log activity: user={}, type={}",
-                                userId, type, error)
-                );
+        if (activityLogBuffer.offer(entry)) {
+            log.debug("Activity queued: user={}, type={}, resource={}", userId, type, resourceId);
+        }
     }
 
     public void log(String userId, ActivityType type, String description) {
@@ -57,6 +61,11 @@ public class ActivityLogService {
         return activityLogRepository.findByUserIdOrderByTimestampDesc(userId);
     }
 
+    public Mono<CursorPage<ActivityLog>> getUserActivityPage(String userId, String cursor, Integer limit) {
+        return keysetPager.page(where("userId").is(userId), "timestamp", cursor, limit,
+                ActivityLog.class, ActivityLog::getTimestamp, ActivityLog::getId);
+    }
+
     public Flux<ActivityLog> getUserActivityByType(String userId, ActivityType type) {
         return activityLogRepository.findByUserIdAndActivityTypeOrderByTimestampDesc(userId, type);
     }
@@ -1,6 +1,7 @@
 package com.forum.config;
 
 import com.forum.handler.SearchHandler;
+import com.forum.handler.SuggestHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.server.RouterFunction;
@@ -13,9 +14,11 @@ import static org.springframework.web.reactive.function.server.RequestPredicates
 public class RouterConfig {
 
     @Bean
-    public RouterFunction<ServerResponse> searchRoutes(SearchHandler searchHandler) {
+    public RouterFunction<ServerResponse> searchRoutes(SearchHandler searchHandler,
+                                                       SuggestHandler suggestHandler) {
         return RouterFunctions.route()
                 .GET("/api/v2/search", searchHandler::search)
+                .GET("/api/v2/suggest", suggestHandler::suggest)
                 .build();
     }
 }
@@ -1,22 +1,37 @@
 package com.forum.controller;
 
 import com.forum.model.Answer;
+import com.forum.scoring.AnswerScoringPipeline;
 import com.forum.service.AnswerService;
+import com.forum.service.QuestionCache;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import reactor.core.publisher.Flux;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
 public class  AnswerController {
 
     private final AnswerService answerService;
+    private final QuestionCache questionCache;
+    private final EncodedJsonResponder encodedJsonResponder;
+    private final AnswerScoringPipeline answerScoringPipeline;
 
-    public AnswerController(AnswerService answerService) {
+    public AnswerController(AnswerService answerService,
+                            QuestionCache questionCache,
+                            EncodedJsonResponder encodedJsonResponder,
+                            AnswerScoringPipeline answerScoringPipeline) {
         this.answerService = answerService;
+        this.questionCache = questionCache;
+        this.encodedJsonResponder = encodedJsonResponder;
+        this.answerScoringPipeline = answerScoringPipeline;
     }
 
     @PostMapping("/questions/{questionId}/answers")
@@ -25,9 +40,19 @@ public class  AnswerController {
         return answerService.create(questionId, answer);
     }
 
+    // Versioned by the question's version counter, which every answer write increments
     @GetMapping("/questions/{questionId}/answers")
-    public Flux<Answer> findByQuestion(@PathVariable String questionId) {
-        return answerService.findByQuestionId(questionId);
+    public Mono<ResponseEntity<DataBuffer>> findByQuestion(@PathVariable String questionId,
+                                                           ServerWebExchange exchange) {
+        String key = "answers-" + questionId;
+        return questionCache.get(questionId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(question -> question.isPresent()
+                        ? encodedJsonResponder.respond(exchange, key, question.get().getVersion(),
+                                () -> answerService.findByQuestionId(questionId).collectList())
+                        : encodedJsonResponder.respondUncached(exchange, key,
+                                answerService.findByQuestionId(questionId).collectList()));
     }
 
     @PutMapping("/answers/{id}/vote")
@@ -36,6 +61,17 @@ public class  AnswerController {
         return answerService.vote(id, delta);
     }
 
+    // Re-queue for quality scoring, e.g. after the model was unavailable
+    @PutMapping("/answers/{id}/score")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<Map<String, Object>> rescore(@PathVariable String id) {
+        if (!answerScoringPipeline.submit(id)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Answer scoring is disabled or its queue is full"));
+        }
+        return Mono.just(Map.of("answerId", id, "queued", true));
+    }
+
     @PutMapping("/answers/{id}/accept")
     public Mono<Answer> accept(@PathVariable String id) {
         return answerService.accept(id);
@@ -0,0 +1,126 @@
+package com.forum.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forum.stats.StatsProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serves hot GET resources from pre-encoded JSON bytes.
+ *
+ * Each resource is cached as the bytes Jackson produced for one version of it.
+ * The strong ETag is derived from key and version, so a matching If-None-Match
+ * is answered with 304 before the body is loaded or encoded. A hit is written
+ * by wrapping the cached array in a DataBuffer; the bytes are never copied and
+ * must never be modified.
+ */
+@Component
+public class EncodedJsonResponder implements StatsProvider {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Encoded> cache;
+
+    private final AtomicLong notModified = new AtomicLong(0);
+    private final AtomicLong servedCached = new AtomicLong(0);
+    private final AtomicLong encodes = new AtomicLong(0);
+
+    public EncodedJsonResponder(ObjectMapper objectMapper,
+                                @Value("${forum.encodedCache.maxWeightBytes:33554432}") long maxWeightBytes,
+                                @Value("${forum.encodedCache.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, Encoded encoded) -> encoded.bytes().length + key.length() * 2 + 64)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Respond with the JSON of the resource at the given version.
+     *
+     * @param key     resource identity, e.g. "question:{id}"
+     * @param version monotonically increasing version of the resource
+     * @param body    loads the value to encode on a cache miss
+     */
+    public Mono<ResponseEntity<DataBuffer>> respond(ServerWebExchange exchange, String key, long version,
+                                                    Supplier<Mono<?>> body) {
+        String etag = "\"" + key + "-" + version + "\"";
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().contains(etag)) {
+            notModified.incrementAndGet();
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+        }
+
+        Encoded cached = cache.getIfPresent(key);
+        Mono<byte[]> bytes;
+        if (cached != null && cached.version() == version) {
+            servedCached.incrementAndGet();
+            bytes = Mono.just(cached.bytes());
+        } else {
+            bytes = body.get().map(value -> {
+                byte[] json = encode(key, value);
+                // Never replace a newer version with an older one encoded concurrently
+                cache.asMap().merge(key, new Encoded(version, json),
+                        (existing, fresh) -> fresh.version() >= existing.version() ? fresh : existing);
+                return json;
+            });
+        }
+
+        return bytes.map(json -> ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(exchange.getResponse().bufferFactory().wrap(json)));
+    }
+
+    /**
+     * Same response shape for resources without a version; encoded every time.
+     */
+    public Mono<ResponseEntity<DataBuffer>> respondUncached(ServerWebExchange exchange, String key, Mono<?> body) {
+        return body.map(value -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(exchange.getResponse().bufferFactory().wrap(encode(key, value))));
+    }
+
+    private byte[] encode(String key, Object value) {
+        try {
+            encodes.incrementAndGet();
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode " + key, e);
+        }
+    }
+
+    @Override
+    public String statsName() {
+        return "encoded-responses";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", cache.estimatedSize());
+        stats.put("notModified", notModified.get());
+        stats.put("servedCached", servedCached.get());
+        stats.put("encodes", encodes.get());
+        stats.put("evictions", cache.stats().evictionCount());
+        return stats;
+    }
+
+    private record Encoded(long version, byte[] bytes) {
+    }
+}
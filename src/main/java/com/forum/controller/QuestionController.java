@@ -1,9 +1,17 @@
 package com.forum.controller;
 
+import com.forum.model.CursorPage;
 import com.forum.model.Question;
+import com.forum.model.QuestionDetail;
+import com.forum.model.QuestionSummary;
+import com.forum.service.QuestionDetailService;
 import com.forum.service.QuestionService;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -12,9 +20,15 @@ import reactor.core.publisher.Mono;
 public class QuestionController {
 
     private final QuestionService questionService;
+    private final QuestionDetailService questionDetailService;
+    private final EncodedJsonResponder encodedJsonResponder;
 
-    public QuestionController(QuestionService questionService) {
+    public QuestionController(QuestionService questionService,
+                              QuestionDetailService questionDetailService,
+                              EncodedJsonResponder encodedJsonResponder) {
         this.questionService = questionService;
+        this.questionDetailService = questionDetailService;
+        this.encodedJsonResponder = encodedJsonResponder;
     }
 
     @PostMapping
@@ -23,14 +37,40 @@ public class QuestionController {
         return questionService.create(question);
     }
 
+    // Summaries by default; ?view=full returns complete documents
     @GetMapping
-    public Flux<Question> findAll() {
+    public Flux<QuestionSummary> findAll() {
+        return questionService.findAllSummaries();
+    }
+
+    @GetMapping(params = "view=full")
+    public Flux<Question> findAllFull() {
         return questionService.findAll();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Question> streamAll() {
+        return questionService.streamAll();
+    }
+
+    @GetMapping("/page")
+    public Mono<CursorPage<Question>> findPage(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        return questionService.findPage(cursor, limit);
+    }
+
+    // Pre-encoded JSON with a strong ETag; the question itself comes from QuestionCache
     @GetMapping("/{id}")
-    public Mono<Question> findById(@PathVariable String id) {
-        return questionService.findById(id);
+    public Mono<ResponseEntity<DataBuffer>> findById(@PathVariable String id, ServerWebExchange exchange) {
+        return questionService.findById(id)
+                .flatMap(question -> encodedJsonResponder.respond(exchange, "question-" + id,
+                        question.getVersion(), () -> Mono.just(question)));
+    }
+
+    @GetMapping("/{id}/detail")
+    public Mono<QuestionDetail> getDetail(@PathVariable String id,
+                                          @RequestParam(required = false) Integer answerLimit) {
+        return questionDetailService.getDetail(id, answerLimit);
     }
 
     @PutMapping("/{id}")
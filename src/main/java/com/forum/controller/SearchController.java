@@ -3,15 +3,23 @@ package com.forum.controller;
 import com.forum.activity.ActivityLogService;
 import com.forum.activity.ActivityType;
 import com.forum.model.Question;
+import com.forum.model.QueryCount;
+import com.forum.model.QuestionSummary;
+import com.forum.model.TagCount;
+import com.forum.search.QueryAnalytics;
 import com.forum.service.SearchService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 @RestController
 @RequestMapping("/api/search")
@@ -19,21 +27,69 @@ public class SearchController {
 
     private final SearchService searchService;
     private final ActivityLogService activityLogService;
+    private final QueryAnalytics queryAnalytics;
+    private final double activitySampleRate;
 
-    public SearchController(SearchService searchService, ActivityLogService activityLogService) {
+    public SearchController(SearchService searchService,
+                            ActivityLogService activityLogService,
+                            QueryAnalytics queryAnalytics,
+                            @Value("${forum.search.activitySampleRate:0.1}") double activitySampleRate) {
         this.searchService = searchService;
         this.activityLogService = activityLogService;
+        this.queryAnalytics = queryAnalytics;
+        this.activitySampleRate = activitySampleRate;
     }
 
+    // Summaries by default; ?view=full returns complete documents
     @GetMapping
-    public Flux<Question> search(@RequestParam String q, ServerWebExchange exchange) {
+    public Flux<QuestionSummary> search(@RequestParam String q,
+                                        @RequestParam(defaultValue = "0") int offset,
+                                        @RequestParam(required = false) Integer limit,
+                                        ServerWebExchange exchange) {
+        logSearch(q, exchange);
+        return searchService.searchSummaries(q, offset, limit);
+    }
+
+    @GetMapping(params = "view=full")
+    public Flux<Question> searchFull(@RequestParam String q,
+                                     @RequestParam(defaultValue = "0") int offset,
+                                     @RequestParam(required = false) Integer limit,
+                                     ServerWebExchange exchange) {
+        logSearch(q, exchange);
+        return searchService.search(q, offset, limit);
+    }
+
+    @GetMapping("/facets")
+    public Mono<List<TagCount>> facets(@RequestParam String q,
+                                       @RequestParam(defaultValue = "20") int limit) {
+        return searchService.facets(q, Math.max(1, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/analytics/top")
+    public Mono<List<QueryCount>> topQueries(@RequestParam(defaultValue = "20") int limit) {
+        return Mono.just(queryAnalytics.top(Math.max(1, Math.min(limit, 100))));
+    }
+
+    @GetMapping("/analytics/trending")
+    public Mono<List<QueryCount>> trendingQueries(@RequestParam(defaultValue = "20") int limit) {
+        return Mono.just(queryAnalytics.trending(Math.max(1, Math.min(limit, 100))));
+    }
+
+    @GetMapping("/analytics/zero-results")
+    public Mono<List<QueryCount>> zeroResultQueries(@RequestParam(defaultValue = "20") int limit) {
+        return Mono.just(queryAnalytics.zeroResults(Math.max(1, Math.min(limit, 100))));
+    }
+
+    // Query counts come from QueryAnalytics; the activity log only keeps a sample
+    private void logSearch(String q, ServerWebExchange exchange) {
+        if (activitySampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= activitySampleRate) {
+            return;
+        }
         String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
         activityLogService.log(userId,
                 ActivityType.SEARCH_PERFORMED,
                 "Search: " + q,
                 null,
                 Map.of("query", q));
-
-        return searchService.search(q);
     }
 }
@@ -0,0 +1,50 @@
+package com.forum.controller;
+
+import com.forum.stats.StatsProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runtime counters for the in-process buffers and caches.
+ * Every StatsProvider bean is served under its own name; providers that are
+ * switched off by configuration (e.g. the batch Kafka consumer) answer 404.
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final Map<String, StatsProvider> providers = new TreeMap<>();
+
+    public StatsController(List<StatsProvider> providers) {
+        for (StatsProvider provider : providers) {
+            StatsProvider existing = this.providers.putIfAbsent(provider.statsName(), provider);
+            if (existing != null) {
+                throw new IllegalStateException("Duplicate stats name '" + provider.statsName() + "': "
+                        + existing.getClass().getSimpleName() + ", " + provider.getClass().getSimpleName());
+            }
+        }
+    }
+
+    @GetMapping
+    public Mono<List<String>> names() {
+        return Mono.just(List.copyOf(providers.keySet()));
+    }
+
+    @GetMapping("/{name}")
+    public Mono<Map<String, Object>> stats(@PathVariable String name) {
+        StatsProvider provider = providers.get(name);
+        if (provider == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown stats: " + name));
+        }
+        return provider.statsAsync();
+    }
+}
@@ -2,9 +2,12 @@ package com.forum.controller;
 
 import com.forum.activity.ActivityLogService;
 import com.forum.activity.ActivityType;
+import com.forum.model.CursorPage;
 import com.forum.model.User;
 import com.forum.repository.UserRepository;
+import com.forum.service.KeysetPager;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
@@ -19,10 +22,13 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final ActivityLogService activityLogService;
+    private final KeysetPager keysetPager;
 
-    public UserController(UserRepository userRepository, ActivityLogService activityLogService) {
+    public UserController(UserRepository userRepository, ActivityLogService activityLogService,
+                          KeysetPager keysetPager) {
         this.userRepository = userRepository;
         this.activityLogService = activityLogService;
+        this.keysetPager = keysetPager;
     }
 
     @PostMapping
@@ -67,9 +73,24 @@ public class UserController {
                 }));
     }
 
+    // One keyset page by default; the full listing is the NDJSON export below
     @GetMapping
-    public Flux<User> findAll() {
-        return userRepository.findAll();
+    public Mono<CursorPage<User>> findAll(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        return findPage(cursor, limit);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<User> streamAll() {
+        return userRepository.findAll()
+                .limitRate(256);
+    }
+
+    @GetMapping("/page")
+    public Mono<CursorPage<User>> findPage(@RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit) {
+        return keysetPager.page(null, "createdAt", cursor, limit,
+                User.class, User::getCreatedAt, User::getId);
     }
 
     private String getClientIp(ServerWebExchange exchange) {
@@ -0,0 +1,48 @@
+package com.forum.controller;
+
+import com.forum.model.QuestionVoteTally;
+import com.forum.service.QuestionStatsService;
+import com.forum.service.VoteTallyService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/tally")
+public class VoteTallyController {
+
+    private final VoteTallyService voteTallyService;
+    private final QuestionStatsService questionStatsService;
+
+    public VoteTallyController(VoteTallyService voteTallyService,
+                               QuestionStatsService questionStatsService) {
+        this.voteTallyService = voteTallyService;
+        this.questionStatsService = questionStatsService;
+    }
+
+    // Run the tally over all questions and return totals + throughput
+    @PostMapping("/votes")
+    public Mono<Map<String, Object>> recalculate(@RequestParam(defaultValue = "vote-tally") String jobId,
+                                                 @RequestParam(defaultValue = "true") boolean resume) {
+        return voteTallyService.recalculateAllVotes(jobId, resume);
+    }
+
+    // Same run, streaming the per-question results as they are computed
+    @PostMapping(value = "/votes/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<QuestionVoteTally> stream(@RequestParam(defaultValue = "vote-tally") String jobId,
+                                          @RequestParam(defaultValue = "true") boolean resume) {
+        return voteTallyService.streamTally(jobId, resume);
+    }
+
+    // Rebuild the denormalized answer stats on every question
+    @PostMapping("/question-stats")
+    public Mono<Map<String, Object>> repairQuestionStats() {
+        return questionStatsService.repairAll();
+    }
+}
@@ -0,0 +1,222 @@
+package com.forum.duplicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Groups the whole question collection into near-duplicate clusters.
+ *
+ * Works from a snapshot of DuplicateIndex, which holds a signature for every
+ * question. The band buckets are rebuilt over ordinals, the ordinals are split
+ * into slices, and each slice finds its similar pairs on batchTaskExecutor
+ * (invokeAll, as VoteTallyService does). Pairs are merged with union-find into
+ * clusters of two or more questions.
+ */
+@Service
+public class DuplicateClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateClusterService.class);
+
+    private static final int SLICES_PER_THREAD = 4;
+
+    private final DuplicateIndex duplicateIndex;
+    private final ExecutorService batchTaskExecutor;
+    private final int poolSize;
+
+    public DuplicateClusterService(DuplicateIndex duplicateIndex,
+                                   @Qualifier("batchTaskExecutor") ExecutorService batchTaskExecutor,
+                                   @Value("${forum.threadPool.batchProcessing:5}") int poolSize) {
+        this.duplicateIndex = duplicateIndex;
+        this.batchTaskExecutor = batchTaskExecutor;
+        this.poolSize = poolSize;
+    }
+
+    public Mono<Map<String, Object>> cluster(int maxClusters) {
+        if (!duplicateIndex.isReady()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Duplicate index is still loading"));
+        }
+        return Mono.fromCallable(() -> {
+            long start = System.nanoTime();
+            DuplicateIndex.Snapshot snapshot = duplicateIndex.snapshot();
+            int n = snapshot.ids().length;
+            Map<Long, IntList> buckets = buckets(snapshot);
+
+            // 1. One task per slice of ordinals
+            int sliceCount = Math.max(1, Math.min(n, poolSize * SLICES_PER_THREAD));
+            List<Callable<long[]>> tasks = new ArrayList<>(sliceCount);
+            for (int slice = 0; slice < sliceCount; slice++) {
+                int from = (int) ((long) n * slice / sliceCount);
+                int to = (int) ((long) n * (slice + 1) / sliceCount);
+                tasks.add(() -> similarPairs(snapshot, buckets, from, to));
+            }
+
+            // 2. Run them in parallel and merge the pairs
+            UnionFind clusters = new UnionFind(n);
+            long pairs = 0;
+            try {
+                for (Future<long[]> future : batchTaskExecutor.invokeAll(tasks)) {
+                    long[] slicePairs = future.get();
+                    pairs += slicePairs.length;
+                    for (long pair : slicePairs) {
+                        clusters.union((int) (pair >>> 32), (int) pair);
+                    }
+                }
+            } catch (InterruptedException e) {
+                log.error("Duplicate clustering interrupted", e);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Duplicate clustering interrupted", e);
+            } catch (ExecutionException e) {
+                log.error("Duplicate clustering execution error", e);
+                throw new RuntimeException("Duplicate clustering failed", e);
+            }
+
+            // 3. Collect clusters, largest first
+            Map<Integer, List<String>> byRoot = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                if (clusters.size(i) > 1) {
+                    byRoot.computeIfAbsent(clusters.find(i), root -> new ArrayList<>()).add(snapshot.ids()[i]);
+                }
+            }
+            List<List<String>> ranked = byRoot.values().stream()
+                    .sorted(Comparator.comparingInt((List<String> cluster) -> cluster.size()).reversed())
+                    .limit(maxClusters)
+                    .toList();
+
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Duplicate clustering complete: questions={}, pairs={}, clusters={}, elapsedMs={}",
+                    n, pairs, byRoot.size(), elapsedMs);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("questionsScanned", n);
+            result.put("similarPairs", pairs);
+            result.put("clusterCount", byRoot.size());
+            result.put("elapsedMs", elapsedMs);
+            result.put("clusters", ranked);
+            return result;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Ordinals are added in increasing order, so every bucket is sorted
+    private Map<Long, IntList> buckets(DuplicateIndex.Snapshot snapshot) {
+        Map<Long, IntList> buckets = new HashMap<>();
+        int[][] signatures = snapshot.signatures();
+        for (int i = 0; i < signatures.length; i++) {
+            for (int band = 0; band < duplicateIndex.bands(); band++) {
+                buckets.computeIfAbsent(duplicateIndex.bandKey(signatures[i], band), key -> new IntList()).add(i);
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Pairs (i, j) with i in [from, to) and j > i, packed as i << 32 | j.
+     * In a bucket, i is compared with the MAX_BUCKET_SCAN members that follow
+     * it, so every pair less than that far apart in a popular bucket is
+     * checked, not only pairs among its first members.
+     */
+    private long[] similarPairs(DuplicateIndex.Snapshot snapshot, Map<Long, IntList> buckets, int from, int to) {
+        int[][] signatures = snapshot.signatures();
+        double threshold = duplicateIndex.threshold();
+        long[] pairs = new long[16];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            Set<Integer> seen = new HashSet<>();
+            for (int band = 0; band < duplicateIndex.bands(); band++) {
+                IntList bucket = buckets.get(duplicateIndex.bandKey(signatures[i], band));
+                int position = Arrays.binarySearch(bucket.values, 0, bucket.size, i);
+                int end = (int) Math.min(bucket.size, position + 1L + DuplicateIndex.MAX_BUCKET_SCAN);
+                for (int k = position + 1; k < end; k++) {
+                    int j = bucket.values[k];
+                    if (!seen.add(j)) {
+                        continue;
+                    }
+                    if (MinHasher.similarity(signatures[i], signatures[j]) >= threshold) {
+                        if (size == pairs.length) {
+                            pairs = Arrays.copyOf(pairs, size * 2);
+                        }
+                        pairs[size++] = (long) i << 32 | j;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(pairs, size);
+    }
+
+    // Growable int array; amortized O(1) add
+    private static final class IntList {
+
+        private int[] values = new int[2];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class UnionFind {
+
+        private final int[] parent;
+        private final int[] size;
+
+        private UnionFind(int n) {
+            this.parent = new int[n];
+            this.size = new int[n];
+            for (int i = 0; i < n; i++) {
+                parent[i] = i;
+                size[i] = 1;
+            }
+        }
+
+        private int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        private void union(int a, int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return;
+            }
+            if (size[rootA] < size[rootB]) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            parent[rootB] = rootA;
+            size[rootA] += size[rootB];
+        }
+
+        private int size(int x) {
+            return size[find(x)];
+        }
+    }
+}
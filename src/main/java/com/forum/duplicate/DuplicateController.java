@@ -0,0 +1,55 @@
+package com.forum.duplicate;
+
+import com.forum.model.DuplicateCandidate;
+import com.forum.model.Question;
+import com.forum.service.QuestionService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/duplicates")
+public class DuplicateController {
+
+    private final DuplicateIndex duplicateIndex;
+    private final DuplicateClusterService duplicateClusterService;
+    private final QuestionService questionService;
+
+    public DuplicateController(DuplicateIndex duplicateIndex,
+                               DuplicateClusterService duplicateClusterService,
+                               QuestionService questionService) {
+        this.duplicateIndex = duplicateIndex;
+        this.duplicateClusterService = duplicateClusterService;
+        this.questionService = questionService;
+    }
+
+    // Pre-submit check: the draft's title and body against existing questions
+    @PostMapping("/check")
+    public Mono<List<DuplicateCandidate>> check(@RequestBody Question draft,
+                                                @RequestParam(defaultValue = "5") int limit) {
+        return Mono.just(duplicateIndex.findSimilar(draft.getTitle(), draft.getBody(), null,
+                Math.max(1, Math.min(limit, 50))));
+    }
+
+    @GetMapping("/questions/{id}")
+    public Mono<List<DuplicateCandidate>> forQuestion(@PathVariable String id,
+                                                      @RequestParam(defaultValue = "5") int limit) {
+        return questionService.findById(id)
+                .map(question -> duplicateIndex.findSimilar(question.getTitle(), question.getBody(), id,
+                        Math.max(1, Math.min(limit, 50))));
+    }
+
+    // Cluster the whole collection; CPU-bound, runs on batchTaskExecutor
+    @PostMapping("/clusters")
+    public Mono<Map<String, Object>> clusters(@RequestParam(defaultValue = "100") int maxClusters) {
+        return duplicateClusterService.cluster(Math.max(1, maxClusters));
+    }
+}
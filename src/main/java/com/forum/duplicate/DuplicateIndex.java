@@ -0,0 +1,260 @@
+package com.forum.duplicate;
+
+import com.forum.index.QuestionChangeListener;
+import com.forum.model.DuplicateCandidate;
+import com.forum.model.Question;
+import com.forum.stats.StatsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory LSH index of question MinHash signatures.
+ *
+ * A signature of bands * rows hashes is split into bands; each band is hashed
+ * to a bucket key, and questions sharing any bucket are candidates. A pair
+ * with Jaccard similarity s collides in at least one band with probability
+ * 1 - (1 - s^rows)^bands. With the default 21 bands of 3 rows that is about
+ * 94% at 0.5, 44% at 0.3 and over 99.9% at 0.7; 16 bands of 4 rows would only
+ * find 64% of the pairs at the 0.5 threshold. Candidates are then verified
+ * against the full signatures and kept if they reach threshold.
+ *
+ * Buckets keep questions in insertion order. A very common band value is only
+ * scanned for its newest MAX_BUCKET_SCAN entries, so a recent duplicate is
+ * still found there.
+ */
+@Component
+public class DuplicateIndex implements QuestionChangeListener, StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateIndex.class);
+
+    // Very common band values (e.g. near-empty bodies) are not scanned past this
+    static final int MAX_BUCKET_SCAN = 500;
+
+    private final boolean enabled;
+    private final int bands;
+    private final int rows;
+    private final double threshold;
+    private final MinHasher minHasher;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Long, List<String>> buckets = new HashMap<>();
+
+    private volatile boolean ready;
+
+    private final AtomicLong checks = new AtomicLong(0);
+    private final AtomicLong checkMicros = new AtomicLong(0);
+
+    public DuplicateIndex(@Value("${forum.duplicates.enabled:true}") boolean enabled,
+                          @Value("${forum.duplicates.bands:21}") int bands,
+                          @Value("${forum.duplicates.rows:3}") int rows,
+                          @Value("${forum.duplicates.threshold:0.5}") double threshold) {
+        this.enabled = enabled;
+        this.bands = bands;
+        this.rows = rows;
+        this.threshold = threshold;
+        this.minHasher = new MinHasher(bands * rows);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    double threshold() {
+        return threshold;
+    }
+
+    /**
+     * Existing questions similar to the given text, most similar first.
+     */
+    public List<DuplicateCandidate> findSimilar(String title, String body, String excludeId, int limit) {
+        if (!isReady()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        int[] signature = minHasher.signature(title, body);
+        if (signature == null) {
+            return List.of();
+        }
+
+        List<DuplicateCandidate> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<String> seen = new HashSet<>();
+            for (int band = 0; band < bands; band++) {
+                List<String> bucket = buckets.get(bandKey(signature, band));
+                if (bucket == null) {
+                    continue;
+                }
+                // Newest first
+                for (int i = bucket.size() - 1; i >= 0 && i >= bucket.size() - MAX_BUCKET_SCAN; i--) {
+                    String questionId = bucket.get(i);
+                    if (questionId.equals(excludeId) || !seen.add(questionId)) {
+                        continue;
+                    }
+                    Entry entry = entries.get(questionId);
+                    double similarity = MinHasher.similarity(signature, entry.signature());
+                    if (similarity >= threshold) {
+                        found.add(new DuplicateCandidate(questionId, entry.title(), similarity));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        checks.incrementAndGet();
+        checkMicros.addAndGet((System.nanoTime() - start) / 1000);
+        found.sort(Comparator.comparingDouble(DuplicateCandidate::getSimilarity).reversed());
+        return found.size() > limit ? List.copyOf(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * Copy of the indexed question ids and their signatures, for batch jobs.
+     * Signatures are never mutated after insertion, so they are shared.
+     */
+    Snapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            String[] ids = new String[entries.size()];
+            int[][] signatures = new int[entries.size()][];
+            int i = 0;
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                ids[i] = entry.getKey();
+                signatures[i] = entry.getValue().signature();
+                i++;
+            }
+            return new Snapshot(ids, signatures);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- QuestionChangeListener ---
+
+    @Override
+    public void onQuestionLoaded(Question question) {
+        if (enabled) {
+            index(question);
+        }
+    }
+
+    @Override
+    public void onLoadComplete() {
+        if (enabled) {
+            ready = true;
+            log.info("Duplicate index ready: questions={}, buckets={}", entries.size(), buckets.size());
+        }
+    }
+
+    @Override
+    public void onQuestionSaved(Question previous, Question current) {
+        if (enabled) {
+            index(current);
+        }
+    }
+
+    @Override
+    public void onQuestionDeleted(Question question) {
+        if (enabled) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(question.getId());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void index(Question question) {
+        int[] signature = minHasher.signature(question.getTitle(), question.getBody());
+        lock.writeLock().lock();
+        try {
+            removeLocked(question.getId());
+            if (signature == null) {
+                return;
+            }
+            entries.put(question.getId(), new Entry(question.getTitle(), signature));
+            for (int band = 0; band < bands; band++) {
+                buckets.computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>(2)).add(question.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(String questionId) {
+        Entry removed = entries.remove(questionId);
+        if (removed == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            long key = bandKey(removed.signature(), band);
+            List<String> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(questionId);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    long bandKey(int[] signature, int band) {
+        long hash = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = MinHasher.mix(hash * 31 + signature[i]);
+        }
+        return hash;
+    }
+
+    int bands() {
+        return bands;
+    }
+
+    @Override
+    public String statsName() {
+        return "duplicates";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            long checkCount = checks.get();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("ready", ready);
+            stats.put("questions", entries.size());
+            stats.put("buckets", buckets.size());
+            stats.put("bands", bands);
+            stats.put("rows", rows);
+            stats.put("threshold", threshold);
+            stats.put("checks", checkCount);
+            stats.put("avgCheckMicros", checkCount > 0 ? checkMicros.get() / checkCount : 0);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Entry(String title, int[] signature) {
+    }
+
+    record Snapshot(String[] ids, int[][] signatures) {
+    }
+}
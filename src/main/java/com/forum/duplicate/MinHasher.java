@@ -0,0 +1,95 @@
+package com.forum.duplicate;
+
+import com.forum.search.SearchTokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MinHash signatures over word shingles of a question's title and body.
+ *
+ * Text is tokenized like the search indexes and cut into overlapping
+ * three-word shingles (texts shorter than that use single words). Each of the
+ * numHashes positions of the signature is the minimum of one seeded 32-bit
+ * hash over all shingles; the share of equal positions between two
+ * signatures estimates the Jaccard similarity of their shingle sets.
+ */
+final class MinHasher {
+
+    private static final int SHINGLE_WORDS = 3;
+
+    private final long[] seeds;
+
+    MinHasher(int numHashes) {
+        this.seeds = new long[numHashes];
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < numHashes; i++) {
+            seed = mix(seed + i);
+            seeds[i] = seed;
+        }
+    }
+
+    int numHashes() {
+        return seeds.length;
+    }
+
+    /**
+     * @return the signature, or null if the text has no terms
+     */
+    int[] signature(String title, String body) {
+        List<String> words = new ArrayList<>(SearchTokenizer.tokenize(title));
+        words.addAll(SearchTokenizer.tokenize(body));
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        long[] shingles = shingles(words);
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) mix(shingle ^ seeds[i]) & Integer.MAX_VALUE;
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private static long[] shingles(List<String> words) {
+        int size = Math.max(1, words.size() - SHINGLE_WORDS + 1);
+        int span = Math.min(SHINGLE_WORDS, words.size());
+        long[] shingles = new long[size];
+        for (int i = 0; i < size; i++) {
+            long hash = 0xcbf29ce484222325L;
+            for (int w = i; w < i + span; w++) {
+                String word = words.get(w);
+                for (int c = 0; c < word.length(); c++) {
+                    hash = (hash ^ word.charAt(c)) * 0x100000001b3L;
+                }
+                hash = (hash ^ ' ') * 0x100000001b3L;
+            }
+            shingles[i] = hash;
+        }
+        return shingles;
+    }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
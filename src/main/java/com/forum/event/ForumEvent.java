@@ -1,16 +1,27 @@
 package com.forum.event;
 
 import java.time.Instant;
+import java.util.UUID;
 
 public class ForumEvent {
 
+    /**
+     * Encoded by ordinal in the binary codec and by name in JSON: append new
+     * constants at the end, never reorder or rename. A consumer that does not
+     * know a constant decodes the event as null and skips it.
+     */
     public enum EventType {
         QUESTION_CREATED,
         ANSWER_CREATED,
         ANSWER_ACCEPTED,
-        ANSWER_VOTED
+        ANSWER_VOTED,
+        NOTIFICATION_CREATED,
+        QUESTION_UPDATED,
+        QUESTION_DELETED
     }
 
+    // Idempotency key, assigned once where the event is created
+    private String eventId;
     private EventType eventType;
     private String questionId;
     private String answerId;
@@ -20,15 +31,27 @@ public class ForumEvent {
     private String body;
     private Instant timestamp;
 
+    // Set on ANSWER_VOTED only
+    private Integer voteDelta;
+
+    // Set on NOTIFICATION_CREATED only
+    private String recipientId;
+    private String notificationId;
+    private String notificationType;
+
     public ForumEvent() {
         this.timestamp = Instant.now();
     }
 
     public ForumEvent(EventType eventType) {
+        this.eventId = UUID.randomUUID().toString();
         this.eventType = eventType;
         this.timestamp = Instant.now();
     }
 
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
     public EventType getEventType() { return eventType; }
     public void setEventType(EventType eventType) { this.eventType = eventType; }
 
@@ -52,4 +75,16 @@ public class ForumEvent {
 
     public Instant getTimestamp() { return timestamp; }
     public void setTimestamp(Instant timestamp) { this.timestamp = timestamp; }
+
+    public Integer getVoteDelta() { return voteDelta; }
+    public void setVoteDelta(Integer voteDelta) { this.voteDelta = voteDelta; }
+
+    public String getRecipientId() { return recipientId; }
+    public void setRecipientId(String recipientId) { this.recipientId = recipientId; }
+
+    public String getNotificationId() { return notificationId; }
+    public void setNotificationId(String notificationId) { this.notificationId = notificationId; }
+
+    public String getNotificationType() { return notificationType; }
+    public void setNotificationType(String notificationType) { this.notificationType = notificationType; }
 }
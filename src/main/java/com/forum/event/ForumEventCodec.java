@@ -0,0 +1,172 @@
+package com.forum.event;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Compact binary encoding of ForumEvent.
+ *
+ * Layout:
+ * <pre>
+ *   byte     version
+ *   varint   eventType ordinal
+ *   string   questionId, answerId, authorId, questionAuthorId, title, body
+ *   varint   timestamp epoch millis + 1 (0 = null)
+ *   -- version 2 --
+ *   string   recipientId, notificationId, notificationType
+ *   -- version 3 --
+ *   varint   voteDelta zigzag-encoded + 1 (0 = null)
+ *   -- appended without a version bump --
+ *   string   eventId
+ * </pre>
+ * A string is a varint of (UTF-8 length + 1) followed by the bytes; 0 means null.
+ *
+ * Compatibility rules, so producers and consumers can be upgraded in any order:
+ * fields are only ever appended, never removed or reinterpreted. The decoder
+ * reads the fields it knows for as long as the payload has bytes and ignores
+ * anything after them, so a newer payload decodes on an older consumer and an
+ * older payload decodes with the missing fields left null. Adding a field does
+ * not need a version bump. Enum constants are only ever appended too; a type
+ * ordinal this build does not know decodes to null, which callers skip.
+ */
+public final class ForumEventCodec {
+
+    public static final byte CURRENT_VERSION = 3;
+
+    private static final ForumEvent.EventType[] EVENT_TYPES = ForumEvent.EventType.values();
+
+    private ForumEventCodec() {
+    }
+
+    public static byte[] encode(ForumEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(CURRENT_VERSION);
+        writeVarint(out, event.getEventType().ordinal());
+        writeString(out, event.getQuestionId());
+        writeString(out, event.getAnswerId());
+        writeString(out, event.getAuthorId());
+        writeString(out, event.getQuestionAuthorId());
+        writeString(out, event.getTitle());
+        writeString(out, event.getBody());
+        writeVarint(out, event.getTimestamp() != null ? event.getTimestamp().toEpochMilli() + 1 : 0);
+        writeString(out, event.getRecipientId());
+        writeString(out, event.getNotificationId());
+        writeString(out, event.getNotificationType());
+        writeVarint(out, event.getVoteDelta() != null ? zigzag(event.getVoteDelta()) + 1 : 0);
+        writeString(out, event.getEventId());
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the event, or null if its type was added after this build
+     */
+    public static ForumEvent decode(byte[] payload) {
+        Reader in = new Reader(payload);
+        int version = in.readByte();
+        if (version < 1) {
+            throw new IllegalArgumentException("Unsupported ForumEvent codec version: " + version);
+        }
+
+        int ordinal = (int) in.readVarint();
+        if (ordinal >= EVENT_TYPES.length) {
+            return null;
+        }
+
+        ForumEvent event = new ForumEvent(EVENT_TYPES[ordinal]);
+        event.setQuestionId(in.readString());
+        event.setAnswerId(in.readString());
+        event.setAuthorId(in.readString());
+        event.setQuestionAuthorId(in.readString());
+        event.setTitle(in.readString());
+        event.setBody(in.readString());
+        long millis = in.readVarint();
+        event.setTimestamp(millis > 0 ? Instant.ofEpochMilli(millis - 1) : null);
+        if (in.hasRemaining()) {
+            event.setRecipientId(in.readString());
+            event.setNotificationId(in.readString());
+            event.setNotificationType(in.readString());
+        }
+        if (in.hasRemaining()) {
+            long delta = in.readVarint();
+            event.setVoteDelta(delta > 0 ? unzigzag(delta - 1) : null);
+        }
+        // Always set: the constructor assigned a fresh id, which must not stand in for a missing one
+        event.setEventId(in.hasRemaining() ? in.readString() : null);
+        // Bytes left here are fields appended by a newer producer
+        return event;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static long zigzag(int value) {
+        return Integer.toUnsignedLong((value << 1) ^ (value >> 31));
+    }
+
+    private static int unzigzag(long value) {
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+
+        private final byte[] buf;
+        private int pos;
+
+        private Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        private boolean hasRemaining() {
+            return pos < buf.length;
+        }
+
+        private int readByte() {
+            if (pos >= buf.length) {
+                throw new IllegalArgumentException("Truncated ForumEvent payload");
+            }
+            return buf[pos++] & 0xFF;
+        }
+
+        private long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in ForumEvent payload");
+        }
+
+        private String readString() {
+            long length = readVarint();
+            if (length == 0) {
+                return null;
+            }
+            int size = (int) (length - 1);
+            if (size > buf.length - pos) {
+                throw new IllegalArgumentException("Truncated ForumEvent payload");
+            }
+            String value = new String(buf, pos, size, StandardCharsets.UTF_8);
+            pos += size;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.forum.feed;
+
+import com.forum.model.Question;
+import com.forum.service.QuestionCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+    private final HotFeedService hotFeedService;
+    private final QuestionCache questionCache;
+
+    public FeedController(HotFeedService hotFeedService, QuestionCache questionCache) {
+        this.hotFeedService = hotFeedService;
+        this.questionCache = questionCache;
+    }
+
+    // sort: hot | top | newest
+    @GetMapping("/{sort}")
+    public Flux<Question> feed(@PathVariable String sort,
+                               @RequestParam(defaultValue = "0") int offset,
+                               @RequestParam(defaultValue = "20") int limit) {
+        HotFeedService.Sort feedSort;
+        try {
+            feedSort = HotFeedService.Sort.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown feed: " + sort);
+        }
+        // Ranking comes from memory; the documents mostly from QuestionCache
+        return Flux.fromIterable(hotFeedService.page(feedSort, offset, Math.min(limit, 100)))
+                .flatMapSequential(questionCache::get);
+    }
+}
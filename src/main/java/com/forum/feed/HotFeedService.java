@@ -0,0 +1,373 @@
+package com.forum.feed;
+
+import com.forum.event.ForumEvent;
+import com.forum.index.QuestionChangeListener;
+import com.forum.model.Answer;
+import com.forum.model.Question;
+import com.forum.stats.StatsProvider;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Ranked question feeds (hot, top, newest) served from memory.
+ *
+ * Per-question counters (votes, answers, accepted) are kept in a map and
+ * updated incrementally from question changes and from the ForumEvents that
+ * OutboxService publishes locally. On a short schedule the map is re-scored
+ * into three immutable arrays of at most capacity question ids; a feed page
+ * is a slice of the current array.
+ *
+ * The hot score decays with age:
+ * <pre>
+ *   points = votes + answerVotes + 2 * answers + (accepted ? 3 : 0)
+ *   hot    = (max(points, 0) + 1) / (ageHours + 2) ^ gravity
+ * </pre>
+ * Events from other instances arrive through Kafka (HotFeedEventListener)
+ * and are applied the same way. Counters are also resynced from Mongo on a
+ * slower schedule to repair anything missed. The resync merges instead of
+ * replacing: increments applied while its scan runs are added on top of the
+ * scanned values, and only questions known before the scan and missing from
+ * it are dropped. An increment that races the scan can be counted twice until
+ * the next resync; none is lost.
+ */
+@Component
+public class HotFeedService implements QuestionChangeListener, StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(HotFeedService.class);
+
+    public enum Sort { HOT, TOP, NEWEST }
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final int capacity;
+    private final double gravity;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Answer deltas applied while a resync scan runs; null otherwise
+    private volatile ConcurrentHashMap<String, Delta> resyncDeltas;
+    private volatile Set<String> resyncDeleted;
+    private final AtomicBoolean resyncing = new AtomicBoolean(false);
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new String[0], new String[0], 0);
+    private volatile boolean ready;
+
+    private final AtomicLong eventsApplied = new AtomicLong(0);
+    private final AtomicLong rebuilds = new AtomicLong(0);
+    private final AtomicLong lastRebuildMicros = new AtomicLong(0);
+
+    public HotFeedService(ReactiveMongoTemplate reactiveMongoTemplate,
+                          @Value("${forum.feed.capacity:1000}") int capacity,
+                          @Value("${forum.feed.gravity:1.5}") double gravity) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.capacity = capacity;
+        this.gravity = gravity;
+    }
+
+    /**
+     * Question ids of one feed page, best first.
+     */
+    public List<String> page(Sort sort, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid offset or limit");
+        }
+        String[] ranked = snapshot.ranked(sort);
+        if (offset >= ranked.length) {
+            return List.of();
+        }
+        return Arrays.asList(ranked).subList(offset, Math.min(ranked.length, offset + limit));
+    }
+
+    // --- QuestionChangeListener ---
+
+    @Override
+    public void onQuestionLoaded(Question question) {
+        entries.put(question.getId(), Entry.of(question));
+    }
+
+    @Override
+    public void onLoadComplete() {
+        resync();
+    }
+
+    @Override
+    public void onQuestionSaved(Question previous, Question current) {
+        entries.merge(current.getId(), Entry.of(current),
+                (existing, fresh) -> existing.withQuestion(fresh.createdAtMillis(), fresh.votes()));
+    }
+
+    @Override
+    public void onQuestionDeleted(Question question) {
+        remove(question.getId());
+    }
+
+    // A resync scan may still have read the question; remember it so the merge does not bring it back
+    private Entry remove(String questionId) {
+        Set<String> deleted = resyncDeleted;
+        if (deleted != null) {
+            deleted.add(questionId);
+        }
+        return entries.remove(questionId);
+    }
+
+    // --- Forum events ---
+
+    /**
+     * Applies a forum event, either published locally by OutboxService or
+     * received from another instance through Kafka.
+     */
+    @EventListener
+    public void onForumEvent(ForumEvent event) {
+        String questionId = event.getQuestionId();
+        if (questionId == null) {
+            return;
+        }
+        Entry updated = switch (event.getEventType()) {
+            case QUESTION_CREATED -> {
+                long createdAt = event.getTimestamp() != null ? event.getTimestamp().toEpochMilli() : 0;
+                Entry created = new Entry(questionId, createdAt, 0, 0, 0, false);
+                yield entries.putIfAbsent(questionId, created) == null ? created : null;
+            }
+            case QUESTION_DELETED -> remove(questionId);
+            case ANSWER_CREATED -> applyDelta(questionId, new Delta(1, 0, false));
+            case ANSWER_VOTED -> applyDelta(questionId,
+                    new Delta(0, event.getVoteDelta() != null ? event.getVoteDelta() : 0, false));
+            case ANSWER_ACCEPTED -> applyDelta(questionId, new Delta(0, 0, true));
+            default -> null;
+        };
+        if (updated != null) {
+            eventsApplied.incrementAndGet();
+        }
+    }
+
+    // Recorded under the entry's lock, so a resync merging the same entry sees it or the delta, not neither
+    private Entry applyDelta(String questionId, Delta delta) {
+        return entries.computeIfPresent(questionId, (id, entry) -> {
+            ConcurrentHashMap<String, Delta> pending = resyncDeltas;
+            if (pending != null) {
+                pending.merge(id, delta, Delta::plus);
+            }
+            return entry.plus(delta);
+        });
+    }
+
+    // --- Scoring ---
+
+    @Scheduled(fixedDelayString = "${forum.feed.rebuildIntervalMs:5000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Entry[] all = entries.values().toArray(new Entry[0]);
+
+        String[] hot = topIds(all, entry -> hotScore(entry, now));
+        String[] top = topIds(all, entry -> entry.points());
+        String[] newest = topIds(all, entry -> entry.createdAtMillis());
+
+        snapshot = new Snapshot(hot, top, newest, now);
+        rebuilds.incrementAndGet();
+        lastRebuildMicros.set((System.nanoTime() - start) / 1000);
+    }
+
+    private double hotScore(Entry entry, long now) {
+        double ageHours = Math.max(0, now - entry.createdAtMillis()) / 3_600_000.0;
+        return (Math.max(entry.points(), 0) + 1) / Math.pow(ageHours + 2, gravity);
+    }
+
+    // Bounded min-heap: O(n log capacity)
+    private String[] topIds(Entry[] all, ToDoubleFunction<Entry> score) {
+        PriorityQueue<Scored> heap = new PriorityQueue<>(Math.max(1, capacity));
+        for (Entry entry : all) {
+            double value = score.applyAsDouble(entry);
+            if (heap.size() < capacity) {
+                heap.add(new Scored(entry.questionId(), value));
+            } else if (value > heap.peek().score()) {
+                heap.poll();
+                heap.add(new Scored(entry.questionId(), value));
+            }
+        }
+        String[] ranked = new String[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = heap.poll().questionId();
+        }
+        return ranked;
+    }
+
+    // --- Resync ---
+
+    /**
+     * Reload the counters from Mongo: question votes and createdAt from
+     * questions, answer count, vote sum and acceptance from one aggregation
+     * over answers. The result is merged into the live map, see the class doc.
+     */
+    @Scheduled(initialDelayString = "${forum.feed.resyncIntervalMs:600000}",
+            fixedDelayString = "${forum.feed.resyncIntervalMs:600000}")
+    public void resync() {
+        if (!resyncing.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ConcurrentHashMap<String, Delta> pending = new ConcurrentHashMap<>();
+        Set<String> deleted = ConcurrentHashMap.newKeySet();
+        resyncDeltas = pending;
+        resyncDeleted = deleted;
+        Set<String> known = new HashSet<>(entries.keySet());
+
+        Query questionsQuery = new Query();
+        questionsQuery.fields().include("_id").include("createdAt").include("votes");
+
+        Aggregation answerStats = Aggregation.newAggregation(
+                Aggregation.group("questionId")
+                        .count().as("answers")
+                        .sum("votes").as("answerVotes")
+                        .max("accepted").as("accepted")
+        );
+
+        reactiveMongoTemplate.aggregate(answerStats, Answer.class, Document.class)
+                .collectMap(doc -> String.valueOf(doc.get("_id")))
+                .flatMap(stats -> reactiveMongoTemplate.find(questionsQuery, Question.class)
+                        .map(question -> {
+                            Entry entry = Entry.of(question);
+                            Document doc = stats.get(question.getId());
+                            if (doc != null) {
+                                entry = entry.withAnswers(
+                                        ((Number) doc.get("answers")).intValue(),
+                                        ((Number) doc.get("answerVotes")).longValue(),
+                                        Boolean.TRUE.equals(doc.get("accepted")));
+                            }
+                            return entry;
+                        })
+                        .collectList())
+                .doFinally(signal -> {
+                    resyncDeltas = null;
+                    resyncDeleted = null;
+                    resyncing.set(false);
+                })
+                .subscribe(
+                        loaded -> {
+                            int dropped = merge(loaded, pending, deleted, known);
+                            ready = true;
+                            rebuild();
+                            log.info("Hot feed resynced: questions={}, dropped={}, elapsedMs={}",
+                                    loaded.size(), dropped, System.currentTimeMillis() - start);
+                        },
+                        error -> log.error("Failed to resync hot feed", error)
+                );
+    }
+
+    /**
+     * Replace each scanned entry with the scanned value plus the deltas applied
+     * during the scan, then drop questions that existed before the scan but
+     * were not found by it. Questions created during the scan are kept, and
+     * questions deleted during it stay deleted.
+     */
+    private int merge(List<Entry> loaded, ConcurrentHashMap<String, Delta> pending, Set<String> deleted,
+                      Set<String> known) {
+        Set<String> seen = new HashSet<>();
+        for (Entry scanned : loaded) {
+            seen.add(scanned.questionId());
+            if (deleted.contains(scanned.questionId())) {
+                continue;
+            }
+            entries.compute(scanned.questionId(), (id, current) -> {
+                Delta during = pending.remove(id);
+                return during != null ? scanned.plus(during) : scanned;
+            });
+        }
+        int dropped = 0;
+        for (String id : known) {
+            if (!seen.contains(id) && entries.remove(id) != null) {
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    @Override
+    public String statsName() {
+        return "feed";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("trackedQuestions", entries.size());
+        stats.put("feedSize", current.hot().length);
+        stats.put("eventsApplied", eventsApplied.get());
+        stats.put("rebuilds", rebuilds.get());
+        stats.put("lastRebuildMicros", lastRebuildMicros.get());
+        stats.put("rebuiltAt", current.builtAtMillis() > 0 ? Instant.ofEpochMilli(current.builtAtMillis()) : null);
+        return stats;
+    }
+
+    private record Entry(String questionId, long createdAtMillis, int votes, int answers, long answerVotes,
+                 boolean accepted) {
+
+        static Entry of(Question question) {
+            long createdAt = question.getCreatedAt() != null ? question.getCreatedAt().toEpochMilli() : 0;
+            return new Entry(question.getId(), createdAt, question.getVotes(), 0, 0, false);
+        }
+
+        Entry withQuestion(long createdAtMillis, int votes) {
+            return new Entry(questionId, createdAtMillis, votes, answers, answerVotes, accepted);
+        }
+
+        Entry withAnswers(int answers, long answerVotes, boolean accepted) {
+            return new Entry(questionId, createdAtMillis, votes, answers, answerVotes, accepted);
+        }
+
+        Entry plus(Delta delta) {
+            return withAnswers(answers + delta.answers(), answerVotes + delta.answerVotes(),
+                    accepted || delta.accepted());
+        }
+
+        long points() {
+            return votes + answerVotes + 2L * answers + (accepted ? 3 : 0);
+        }
+    }
+
+    private record Delta(int answers, long answerVotes, boolean accepted) {
+        Delta plus(Delta other) {
+            return new Delta(answers + other.answers, answerVotes + other.answerVotes, accepted || other.accepted);
+        }
+    }
+
+    private record Scored(String questionId, double score) implements Comparable<Scored> {
+        @Override
+        public int compareTo(Scored other) {
+            return Double.compare(score, other.score);
+        }
+    }
+
+    private record Snapshot(String[] hot, String[] top, String[] newest, long builtAtMillis) {
+        String[] ranked(Sort sort) {
+            return switch (sort) {
+                case HOT -> hot;
+                case TOP -> top;
+                case NEWEST -> newest;
+            };
+        }
+    }
+}
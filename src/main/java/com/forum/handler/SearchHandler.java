@@ -1,12 +1,16 @@
 package com.forum.handler;
 
 import com.forum.service.SearchService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
 @Component
 public class SearchHandler {
 
@@ -18,8 +22,23 @@ public class SearchHandler {
 
     public Mono<ServerResponse> search(ServerRequest request) {
         String keyword = request.queryParam("q").orElse("");
+        int offset = intParam(request, "offset").orElse(0);
+        Integer limit = intParam(request, "limit").orElse(null);
+        if ("full".equals(request.queryParam("view").orElse(null))) {
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(searchService.search(keyword, offset, limit), com.forum.model.Question.class);
+        }
         return ServerResponse.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(searchService.search(keyword), com.forum.model.Question.class);
+                .body(searchService.searchSummaries(keyword, offset, limit), com.forum.model.QuestionSummary.class);
+    }
+
+    private static Optional<Integer> intParam(ServerRequest request, String name) {
+        try {
+            return request.queryParam(name).map(Integer::valueOf);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid " + name);
+        }
     }
 }
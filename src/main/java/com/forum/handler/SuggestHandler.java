@@ -0,0 +1,45 @@
+package com.forum.handler;
+
+import com.forum.model.Suggestion;
+import com.forum.search.SuggestIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+public class SuggestHandler {
+
+    private final SuggestIndex suggestIndex;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public SuggestHandler(SuggestIndex suggestIndex,
+                          @Value("${forum.suggest.defaultLimit:8}") int defaultLimit,
+                          @Value("${forum.suggest.maxLimit:25}") int maxLimit) {
+        this.suggestIndex = suggestIndex;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    // Served from memory on the request thread, no database round trip
+    public Mono<ServerResponse> suggest(ServerRequest request) {
+        String prefix = request.queryParam("q").orElse("");
+        int limit;
+        try {
+            limit = request.queryParam("limit").map(Integer::valueOf).orElse(defaultLimit);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit");
+        }
+        List<Suggestion> suggestions = suggestIndex.suggest(prefix, Math.min(limit, maxLimit));
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(suggestions);
+    }
+}
@@ -0,0 +1,132 @@
+package com.forum.index;
+
+import com.forum.model.Question;
+import com.forum.stats.StatsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fans question changes out to every QuestionChangeListener.
+ *
+ * Each listener is called in isolation: an exception is logged and counted
+ * but never reaches the writer or the other listeners.
+ *
+ * While the startup scan is running, live writes race with it. The version of
+ * every live write is recorded, deletes as a tombstone, and a loaded snapshot
+ * is only applied when it is newer than what live writes already indexed, so
+ * a snapshot read before an edit or delete cannot bring the old document back.
+ * The records are dropped once the scan ends.
+ */
+@Component
+public class QuestionChangeDispatcher implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionChangeDispatcher.class);
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final List<QuestionChangeListener> listeners;
+
+    // questionId -> highest version dispatched since the scan started; null once it ended
+    private volatile ConcurrentHashMap<String, Long> loadVersions = new ConcurrentHashMap<>();
+
+    private final AtomicLong snapshotsApplied = new AtomicLong(0);
+    private final AtomicLong snapshotsSkipped = new AtomicLong(0);
+    private final AtomicLong listenerFailures = new AtomicLong(0);
+
+    public QuestionChangeDispatcher(List<QuestionChangeListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    public int listenerCount() {
+        return listeners.size();
+    }
+
+    // --- Startup scan ---
+
+    public void loaded(Question question) {
+        ConcurrentHashMap<String, Long> versions = loadVersions;
+        if (versions == null) {
+            return;
+        }
+        boolean[] apply = {false};
+        // Under the map's bin lock, so a concurrent live write cannot interleave with the apply
+        versions.compute(question.getId(), (id, indexed) -> {
+            if (indexed != null && indexed >= question.getVersion()) {
+                return indexed;
+            }
+            apply[0] = true;
+            dispatch("onQuestionLoaded", question.getId(), listener -> listener.onQuestionLoaded(question));
+            return question.getVersion();
+        });
+        (apply[0] ? snapshotsApplied : snapshotsSkipped).incrementAndGet();
+    }
+
+    public void loadComplete() {
+        loadVersions = null;
+        dispatch("onLoadComplete", null, QuestionChangeListener::onLoadComplete);
+    }
+
+    // Stops version tracking without marking listeners ready
+    public void loadFailed() {
+        loadVersions = null;
+    }
+
+    // --- Live writes ---
+
+    public void saved(Question previous, Question current) {
+        live(current.getId(), current.getVersion(),
+                () -> dispatch("onQuestionSaved", current.getId(), listener -> listener.onQuestionSaved(previous, current)));
+    }
+
+    public void deleted(Question question) {
+        live(question.getId(), DELETED,
+                () -> dispatch("onQuestionDeleted", question.getId(), listener -> listener.onQuestionDeleted(question)));
+    }
+
+    private void live(String questionId, long version, Runnable apply) {
+        ConcurrentHashMap<String, Long> versions = loadVersions;
+        if (versions == null) {
+            apply.run();
+            return;
+        }
+        versions.compute(questionId, (id, indexed) -> {
+            apply.run();
+            return indexed != null ? Math.max(indexed, version) : version;
+        });
+    }
+
+    private void dispatch(String callback, String questionId, Consumer<QuestionChangeListener> call) {
+        for (QuestionChangeListener listener : listeners) {
+            try {
+                call.accept(listener);
+            } catch (RuntimeException e) {
+                listenerFailures.incrementAndGet();
+                log.error("{} failed: listener={}, questionId={}",
+                        callback, listener.getClass().getSimpleName(), questionId, e);
+            }
+        }
+    }
+
+    @Override
+    public String statsName() {
+        return "question-listeners";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("listeners", listeners.size());
+        stats.put("loading", loadVersions != null);
+        stats.put("snapshotsApplied", snapshotsApplied.get());
+        stats.put("snapshotsSkipped", snapshotsSkipped.get());
+        stats.put("listenerFailures", listenerFailures.get());
+        return stats;
+    }
+}
@@ -0,0 +1,26 @@
+package com.forum.index;
+
+import com.forum.model.Question;
+
+/**
+ * Callback for in-memory structures derived from questions.
+ * QuestionService notifies every listener bean after a successful write,
+ * and QuestionIndexLoader replays the whole collection once at startup.
+ */
+public interface QuestionChangeListener {
+
+    /** Called for every stored question during the startup load. */
+    default void onQuestionLoaded(Question question) {
+    }
+
+    /** Called once the startup load has finished. */
+    default void onLoadComplete() {
+    }
+
+    /** Called after create (previous is null) and after update. */
+    default void onQuestionSaved(Question previous, Question current) {
+    }
+
+    default void onQuestionDeleted(Question question) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.forum.index;
+
+import com.forum.repository.QuestionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Streams the questions collection once at startup into every
+ * QuestionChangeListener, so all in-memory indexes share a single scan.
+ * QuestionChangeDispatcher reconciles the scan with writes made meanwhile.
+ */
+@Component
+public class QuestionIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionIndexLoader.class);
+
+    private final QuestionRepository questionRepository;
+    private final QuestionChangeDispatcher dispatcher;
+
+    public QuestionIndexLoader(QuestionRepository questionRepository,
+                               QuestionChangeDispatcher dispatcher) {
+        this.questionRepository = questionRepository;
+        this.dispatcher = dispatcher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        long start = System.currentTimeMillis();
+
+        questionRepository.findAll()
+                .limitRate(500)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(dispatcher::loaded)
+                .count()
+                .subscribe(
+                        count -> {
+                            dispatcher.loadComplete();
+                            log.info("Question indexes loaded: questions={}, listeners={}, elapsedMs={}",
+                                    count, dispatcher.listenerCount(), System.currentTimeMillis() - start);
+                        },
+                        error -> {
+                            dispatcher.loadFailed();
+                            log.error("Failed to load question indexes", error);
+                        }
+                );
+    }
+}
@@ -0,0 +1,130 @@
+package com.forum.kafka;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.forum.event.ForumEvent;
+import com.forum.event.ForumEventCodec;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes ForumEvent record values.
+ *
+ * The producer writes the format it used into the forum-event-format header.
+ * Consumers pick the decoder from that header, and records without it are
+ * treated as JSON, so JSON and binary producers can run side by side while
+ * forum.kafka.eventFormat is rolled out.
+ *
+ * Both decoders tolerate events from newer producers: unknown fields are
+ * ignored, and an event of an unknown type decodes to null so the caller can
+ * skip it instead of failing the record.
+ */
+@Component
+public class ForumEventSerde {
+
+    public static final String FORMAT_HEADER = "forum-event-format";
+    public static final String FORMAT_JSON = "json";
+    public static final String FORMAT_BINARY = "binary";
+    public static final String ORIGIN_HEADER = "forum-origin";
+
+    // Identifies records produced by this instance, for per-instance broadcast listeners
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+    private static final byte[] INSTANCE_ID_BYTES = INSTANCE_ID.getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader eventReader;
+    private final String producerFormat;
+    private final byte[] producerFormatHeader;
+
+    public ForumEventSerde(ObjectMapper objectMapper,
+                           @Value("${forum.kafka.eventFormat:json}") String producerFormat) {
+        this.objectMapper = objectMapper;
+        this.eventReader = objectMapper.readerFor(ForumEvent.class)
+                .with(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.producerFormat = FORMAT_BINARY.equalsIgnoreCase(producerFormat) ? FORMAT_BINARY : FORMAT_JSON;
+        this.producerFormatHeader = this.producerFormat.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String producerFormat() {
+        return producerFormat;
+    }
+
+    public String instanceId() {
+        return INSTANCE_ID;
+    }
+
+    public ProducerRecord<String, byte[]> toRecord(String topic, String key, byte[] payload) {
+        return toRecord(topic, key, payload, null);
+    }
+
+    /**
+     * @param origin instance that wrote the event, when it is sent by another
+     *               one (the outbox relay); null means this instance
+     */
+    public ProducerRecord<String, byte[]> toRecord(String topic, String key, byte[] payload, String origin) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, payload);
+        record.headers().add(FORMAT_HEADER, producerFormatHeader);
+        record.headers().add(ORIGIN_HEADER, origin != null ? origin.getBytes(StandardCharsets.UTF_8) : INSTANCE_ID_BYTES);
+        return record;
+    }
+
+    public boolean isLocalOrigin(Headers headers) {
+        Header header = headers != null ? headers.lastHeader(ORIGIN_HEADER) : null;
+        return header != null && Arrays.equals(header.value(), INSTANCE_ID_BYTES);
+    }
+
+    public byte[] encode(ForumEvent event) {
+        if (FORMAT_BINARY.equals(producerFormat)) {
+            return ForumEventCodec.encode(event);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize event: " + event.getEventType(), e);
+        }
+    }
+
+    /**
+     * Decode a consumed record. Events from producers that predate eventId get
+     * one from the record's position, which stays the same on redelivery.
+     *
+     * @return the event, or null if its type is unknown to this build
+     */
+    public ForumEvent decode(ConsumerRecord<String, byte[]> record) {
+        ForumEvent event = decode(record.value(), record.headers());
+        if (event != null && event.getEventId() == null) {
+            event.setEventId(record.topic() + "-" + record.partition() + "-" + record.offset());
+        }
+        return event;
+    }
+
+    /**
+     * @return the event, or null if its type is unknown to this build
+     */
+    public ForumEvent decode(byte[] payload, Headers headers) {
+        Header header = headers != null ? headers.lastHeader(FORMAT_HEADER) : null;
+        String format = header != null ? new String(header.value(), StandardCharsets.UTF_8) : FORMAT_JSON;
+
+        if (FORMAT_BINARY.equals(format)) {
+            return ForumEventCodec.decode(payload);
+        }
+        try {
+            ForumEvent event = eventReader.readValue(payload);
+            return event.getEventType() != null ? event : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse JSON event", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.forum.kafka;
+
+import com.forum.config.KafkaConfig;
+import com.forum.event.ForumEvent;
+import com.forum.feed.HotFeedService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-instance listener that applies question and answer events from other
+ * instances to this instance's HotFeedService. Like the other broadcast
+ * listeners it uses its own consumer group, and skips the records this
+ * instance wrote because OutboxService already applied them locally.
+ */
+@Service
+@ConditionalOnBean(KafkaTemplate.class)
+public class HotFeedEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(HotFeedEventListener.class);
+
+    private final HotFeedService hotFeedService;
+    private final ForumEventSerde forumEventSerde;
+
+    public HotFeedEventListener(HotFeedService hotFeedService,
+                                ForumEventSerde forumEventSerde) {
+        this.hotFeedService = hotFeedService;
+        this.forumEventSerde = forumEventSerde;
+    }
+
+    @KafkaListener(topics = {KafkaConfig.TOPIC_QUESTIONS, KafkaConfig.TOPIC_ANSWERS},
+            groupId = "#{'qa-forum-feed-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void onRecord(ConsumerRecord<String, byte[]> record) {
+        if (forumEventSerde.isLocalOrigin(record.headers())) {
+            return;
+        }
+        try {
+            ForumEvent event = forumEventSerde.decode(record);
+            if (event != null) {
+                hotFeedService.onForumEvent(event);
+            }
+        } catch (Exception e) {
+            // The periodic resync repairs whatever this record would have changed
+            log.warn("Failed to apply feed event: topic={}, partition={}, offset={}",
+                    record.topic(), record.partition(), record.offset(), e);
+        }
+    }
+}
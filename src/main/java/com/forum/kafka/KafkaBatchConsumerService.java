@@ -0,0 +1,146 @@
+package com.forum.kafka;
+
+import com.forum.config.KafkaConfig;
+import com.forum.event.ForumEvent;
+import com.forum.notification.Notification;
+import com.forum.notification.NotificationService;
+import com.forum.stats.StatsProvider;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batch variant of KafkaConsumerService, enabled with forum.kafka.batchListener=true.
+ *
+ * Each poll arrives as one list. Answer events are decoded together and turned
+ * into notifications with a single bulk insert; the offsets of the poll are
+ * committed only after that insert succeeded. If the insert fails or times
+ * out the exception propagates and the container redelivers the batch. The
+ * insert is keyed by eventId, so a redelivered batch, or one whose timed-out
+ * insert completed anyway, does not write any notification twice.
+ */
+@Service
+@ConditionalOnBean(KafkaTemplate.class)
+@ConditionalOnProperty(name = "forum.kafka.batchListener", havingValue = "true")
+public class KafkaBatchConsumerService implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaBatchConsumerService.class);
+
+    private final NotificationService notificationService;
+    private final ForumEventSerde forumEventSerde;
+    private final Duration writeTimeout;
+
+    private final long startedAtNanos = System.nanoTime();
+    private final AtomicLong batchCount = new AtomicLong(0);
+    private final AtomicLong recordCount = new AtomicLong(0);
+    private final AtomicLong decodeFailures = new AtomicLong(0);
+    private final AtomicLong unknownTypes = new AtomicLong(0);
+    private final AtomicLong notificationsWritten = new AtomicLong(0);
+    private final AtomicLong maxBatchSize = new AtomicLong(0);
+    private final AtomicLong lastBatchSize = new AtomicLong(0);
+    private final AtomicLong lastBatchNanos = new AtomicLong(0);
+
+    public KafkaBatchConsumerService(NotificationService notificationService,
+                                     ForumEventSerde forumEventSerde,
+                                     @Value("${forum.kafka.batchWriteTimeout:10s}") Duration writeTimeout) {
+        this.notificationService = notificationService;
+        this.forumEventSerde = forumEventSerde;
+        this.writeTimeout = writeTimeout;
+    }
+
+    @KafkaListener(topics = KafkaConfig.TOPIC_QUESTIONS, groupId = "qa-forum-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeQuestionBatch(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        long start = System.nanoTime();
+        List<ForumEvent> events = decode(records);
+        log.info("Received question event batch: records={}, decoded={}", records.size(), events.size());
+        ack.acknowledge();
+        recordBatch(records.size(), System.nanoTime() - start);
+    }
+
+    @KafkaListener(topics = KafkaConfig.TOPIC_ANSWERS, groupId = "qa-forum-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void consumeAnswerBatch(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        long start = System.nanoTime();
+        List<ForumEvent> events = decode(records);
+
+        // Blocking is fine here: this is the listener container thread, and the
+        // commit must wait for the bulk write anyway
+        List<Notification> saved = notificationService.saveBatch(events).block(writeTimeout);
+        int written = saved != null ? saved.size() : 0;
+        notificationsWritten.addAndGet(written);
+
+        ack.acknowledge();
+        recordBatch(records.size(), System.nanoTime() - start);
+        log.info("Processed answer event batch: records={}, decoded={}, notifications={}",
+                records.size(), events.size(), written);
+    }
+
+    private List<ForumEvent> decode(List<ConsumerRecord<String, byte[]>> records) {
+        List<ForumEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                ForumEvent event = forumEventSerde.decode(record);
+                if (event != null) {
+                    events.add(event);
+                } else {
+                    unknownTypes.incrementAndGet();
+                }
+            } catch (Exception e) {
+                // A poison record must not block the partition; skip it
+                decodeFailures.incrementAndGet();
+                log.error("Failed to decode event: topic={}, partition={}, offset={}",
+                        record.topic(), record.partition(), record.offset(), e);
+            }
+        }
+        return events;
+    }
+
+    private void recordBatch(int size, long elapsedNanos) {
+        batchCount.incrementAndGet();
+        recordCount.addAndGet(size);
+        lastBatchSize.set(size);
+        lastBatchNanos.set(elapsedNanos);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+    }
+
+    @Override
+    public String statsName() {
+        return "kafka-consumer";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        long batches = batchCount.get();
+        long records = recordCount.get();
+        double uptimeSeconds = (System.nanoTime() - startedAtNanos) / 1e9;
+        long lastNanos = lastBatchNanos.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("batches", batches);
+        stats.put("records", records);
+        stats.put("decodeFailures", decodeFailures.get());
+        stats.put("unknownTypes", unknownTypes.get());
+        stats.put("notificationsWritten", notificationsWritten.get());
+        stats.put("avgBatchSize", batches > 0 ? (double) records / batches : 0.0);
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("lastBatchSize", lastBatchSize.get());
+        stats.put("recordsPerSecond", uptimeSeconds > 0 ? records / uptimeSeconds : 0.0);
+        stats.put("lastBatchRecordsPerSecond", lastNanos > 0 ? lastBatchSize.get() * 1e9 / lastNanos : 0.0);
+        return stats;
+    }
+}
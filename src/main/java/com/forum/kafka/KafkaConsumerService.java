@@ -1,46 +1,59 @@
 package com.forum.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.forum.config.KafkaConfig;
 import com.forum.event.ForumEvent;
 import com.forum.notification.NotificationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
 @ConditionalOnBean(KafkaTemplate.class)
+@ConditionalOnProperty(name = "forum.kafka.batchListener", havingValue = "false", matchIfMissing = true)
 public class KafkaConsumerService {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaConsumerService.class);
 
     private final NotificationService notificationService;
-    private final ObjectMapper objectMapper;
+    private final ForumEventSerde forumEventSerde;
 
     public KafkaConsumerService(NotificationService notificationService,
-                                ObjectMapper objectMapper) {
+                                ForumEventSerde forumEventSerde) {
         this.notificationService = notificationService;
-        this.objectMapper = objectMapper;
+        this.forumEventSerde = forumEventSerde;
     }
 
     @KafkaListener(topics = KafkaConfig.TOPIC_QUESTIONS, groupId = "qa-forum-group")
-    public void consumeQuestionEvent(String message) {
+    public void consumeQuestionEvent(ConsumerRecord<String, byte[]> record) {
         try {
-            ForumEvent event = objectMapper.readValue(message, ForumEvent.class);
+            ForumEvent event = forumEventSerde.decode(record.value(), record.headers());
+            if (event == null) {
+                log.debug("Skipping question event of unknown type: partition={}, offset={}",
+                        record.partition(), record.offset());
+                return;
+            }
             log.info("Received question event: type={}, questionId={}",
                     event.getEventType(), event.getQuestionId());
         } catch (Exception e) {
-            log.error("Failed to process question event: {}", message, e);
+            log.error("Failed to process question event: partition={}, offset={}",
+                    record.partition(), record.offset(), e);
         }
     }
 
     @KafkaListener(topics = KafkaConfig.TOPIC_ANSWERS, groupId = "qa-forum-group")
-    public void consumeAnswerEvent(String message) {
+    public void consumeAnswerEvent(ConsumerRecord<String, byte[]> record) {
         try {
-            ForumEvent event = objectMapper.readValue(message, ForumEvent.class);
+            ForumEvent event = forumEventSerde.decode(record);
+            if (event == null) {
+                log.debug("Skipping answer event of unknown type: partition={}, offset={}",
+                        record.partition(), record.offset());
+                return;
+            }
             log.info("Received answer event: type={}, questionId={}, answerId={}",
                     event.getEventType(), event.getQuestionId(), event.getAnswerId());
 
@@ -48,11 +61,13 @@ public class KafkaConsumerService {
                 case ANSWER_CREATED -> notificationService.handleAnswerCreated(event);
                 case ANSWER_ACCEPTED -> notificationService.handleAnswerAccepted(event);
                 case ANSWER_VOTED -> notificationService.handleAnswerVoted(event);
+                case NOTIFICATION_CREATED -> { } // delivered by NotificationFanoutListener
                 default -> log.warn("Unhandled answer event type: {}", event.getEventType());
             }
 
         } catch (Exception e) {
-            log.error("Failed to process answer event: {}", message, e);
+            log.error("Failed to process answer event: partition={}, offset={}",
+                    record.partition(), record.offset(), e);
         }
     }
 }
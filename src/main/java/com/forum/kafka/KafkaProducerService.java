@@ -1,7 +1,5 @@
 package com.forum.kafka;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.forum.config.KafkaConfig;
 import com.forum.event.ForumEvent;
 import org.slf4j.Logger;
@@ -10,52 +8,81 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class KafkaProducerService {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaProducerService.class);
 
     @Nullable
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ForumEventSerde forumEventSerde;
 
-    public KafkaProducerService(@Nullable KafkaTemplate<String, String> kafkaTemplate,
-                                ObjectMapper objectMapper) {
+    public KafkaProducerService(@Nullable KafkaTemplate<String, byte[]> kafkaTemplate,
+                                ForumEventSerde forumEventSerde) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+        this.forumEventSerde = forumEventSerde;
 
         if (kafkaTemplate == null) {
             log.warn("Kafka is disabled — events will be logged only");
         }
     }
 
+    public boolean isEnabled() {
+        return kafkaTemplate != null;
+    }
+
     public void publishEvent(ForumEvent event) {
         try {
-            String payload = objectMapper.writeValueAsString(event);
+            byte[] payload = forumEventSerde.encode(event);
             String topic = resolveTopic(event);
             String key = resolveKey(event);
 
             if (kafkaTemplate != null) {
-                log.info("Publishing event: type={}, topic={}, key={}", event.getEventType(), topic, key);
-                kafkaTemplate.send(topic, key, payload);
+                log.info("Publishing event: type={}, topic={}, key={}, format={}, bytes={}",
+                        event.getEventType(), topic, key, forumEventSerde.producerFormat(), payload.length);
+                kafkaTemplate.send(forumEventSerde.toRecord(topic, key, payload));
             } else {
-                log.info("[KAFKA DISABLED] Event: type={}, topic={}, key={}, payload={}",
-                        event.getEventType(), topic, key, payload);
+                log.info("[KAFKA DISABLED] Event: type={}, topic={}, key={}, format={}, bytes={}",
+                        event.getEventType(), topic, key, forumEventSerde.producerFormat(), payload.length);
             }
 
-        } catch (JsonProcessingException e) {
+        } catch (RuntimeException e) {
             log.error("Failed to serialize event: {}", event.getEventType(), e);
         }
     }
 
-    private String resolveTopic(ForumEvent event) {
+    /**
+     * Send and expose the broker acknowledgement, for callers that must know
+     * whether the event was delivered (the outbox relay). origin is the
+     * instance that wrote the event; null means this one.
+     */
+    public CompletableFuture<Void> send(String topic, String key, ForumEvent event, @Nullable String origin) {
+        byte[] payload;
+        try {
+            payload = forumEventSerde.encode(event);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (kafkaTemplate == null) {
+            log.info("[KAFKA DISABLED] Event: type={}, topic={}, key={}, format={}, bytes={}",
+                    event.getEventType(), topic, key, forumEventSerde.producerFormat(), payload.length);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return kafkaTemplate.send(forumEventSerde.toRecord(topic, key, payload, origin)).thenApply(result -> null);
+    }
+
+    public String resolveTopic(ForumEvent event) {
         return switch (event.getEventType()) {
-            case QUESTION_CREATED -> KafkaConfig.TOPIC_QUESTIONS;
-            case ANSWER_CREATED, ANSWER_ACCEPTED, ANSWER_VOTED -> KafkaConfig.TOPIC_ANSWERS;
+            case QUESTION_CREATED, QUESTION_UPDATED, QUESTION_DELETED -> KafkaConfig.TOPIC_QUESTIONS;
+            case ANSWER_CREATED, ANSWER_ACCEPTED, ANSWER_VOTED, NOTIFICATION_CREATED -> KafkaConfig.TOPIC_ANSWERS;
         };
     }
 
-    private String resolveKey(ForumEvent event) {
+    public String resolveKey(ForumEvent event) {
         return event.getQuestionId() != null ? event.getQuestionId() : event.getAnswerId();
     }
 }
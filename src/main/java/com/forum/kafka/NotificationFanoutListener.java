@@ -0,0 +1,53 @@
+package com.forum.kafka;
+
+import com.forum.config.KafkaConfig;
+import com.forum.event.ForumEvent;
+import com.forum.notification.NotificationService;
+import com.forum.notification.NotificationStreamRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-instance listener that fans NOTIFICATION_CREATED events out to the SSE
+ * connections held by this instance. Every instance uses its own consumer
+ * group, so each one sees every notification; records this instance produced
+ * itself are skipped because they were already pushed locally.
+ */
+@Service
+@ConditionalOnBean(KafkaTemplate.class)
+public class NotificationFanoutListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationFanoutListener.class);
+
+    private final NotificationStreamRegistry notificationStreamRegistry;
+    private final ForumEventSerde forumEventSerde;
+
+    public NotificationFanoutListener(NotificationStreamRegistry notificationStreamRegistry,
+                                      ForumEventSerde forumEventSerde) {
+        this.notificationStreamRegistry = notificationStreamRegistry;
+        this.forumEventSerde = forumEventSerde;
+    }
+
+    @KafkaListener(topics = KafkaConfig.TOPIC_ANSWERS,
+            groupId = "#{'qa-forum-push-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void onAnswerTopicRecord(ConsumerRecord<String, byte[]> record) {
+        if (forumEventSerde.isLocalOrigin(record.headers())) {
+            return;
+        }
+        try {
+            ForumEvent event = forumEventSerde.decode(record.value(), record.headers());
+            if (event != null && event.getEventType() == ForumEvent.EventType.NOTIFICATION_CREATED) {
+                notificationStreamRegistry.publish(NotificationService.fromEvent(event));
+            }
+        } catch (Exception e) {
+            log.error("Failed to fan out notification: partition={}, offset={}",
+                    record.partition(), record.offset(), e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.forum.kafka;
+
+import com.forum.config.KafkaConfig;
+import com.forum.event.ForumEvent;
+import com.forum.search.SearchResultCache;
+import com.forum.service.QuestionCache;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-instance listener that drops updated and deleted questions from this
+ * instance's QuestionCache, and clears its SearchResultCache on any question
+ * write, since a new or changed question can enter any cached result list.
+ * Answer writes bump the question's version, which is the answer list ETag,
+ * so answer events from the answers topic drop the question as well.
+ * Like NotificationFanoutListener it uses its own
+ * consumer group so every instance sees every event, and skips the records it
+ * produced itself because the local write already invalidated the entry.
+ */
+@Service
+@ConditionalOnBean(KafkaTemplate.class)
+public class QuestionCacheInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionCacheInvalidationListener.class);
+
+    private final QuestionCache questionCache;
+    private final SearchResultCache searchResultCache;
+    private final ForumEventSerde forumEventSerde;
+
+    public QuestionCacheInvalidationListener(QuestionCache questionCache,
+                                             SearchResultCache searchResultCache,
+                                             ForumEventSerde forumEventSerde) {
+        this.questionCache = questionCache;
+        this.searchResultCache = searchResultCache;
+        this.forumEventSerde = forumEventSerde;
+    }
+
+    @KafkaListener(topics = KafkaConfig.TOPIC_QUESTIONS,
+            groupId = "#{'qa-forum-cache-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void onQuestionTopicRecord(ConsumerRecord<String, byte[]> record) {
+        if (forumEventSerde.isLocalOrigin(record.headers())) {
+            return;
+        }
+        try {
+            ForumEvent event = forumEventSerde.decode(record.value(), record.headers());
+            if (event == null) {
+                // Type added after this build: dropping the entries is always safe
+                questionCache.invalidate(record.key());
+                searchResultCache.invalidateAll();
+                return;
+            }
+            switch (event.getEventType()) {
+                case QUESTION_UPDATED, QUESTION_DELETED -> {
+                    questionCache.invalidate(event.getQuestionId());
+                    searchResultCache.invalidateAll();
+                }
+                case QUESTION_CREATED -> searchResultCache.invalidateAll();
+                default -> { }
+            }
+        } catch (Exception e) {
+            // Fall back to the record key, which is the question id
+            log.warn("Failed to decode question event, invalidating by key: partition={}, offset={}",
+                    record.partition(), record.offset(), e);
+            questionCache.invalidate(record.key());
+            searchResultCache.invalidateAll();
+        }
+    }
+
+    @KafkaListener(topics = KafkaConfig.TOPIC_ANSWERS,
+            groupId = "#{'qa-forum-cache-answers-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void onAnswerTopicRecord(ConsumerRecord<String, byte[]> record) {
+        if (forumEventSerde.isLocalOrigin(record.headers())) {
+            return;
+        }
+        try {
+            ForumEvent event = forumEventSerde.decode(record.value(), record.headers());
+            if (event == null) {
+                questionCache.invalidate(record.key());
+                return;
+            }
+            switch (event.getEventType()) {
+                case ANSWER_CREATED, ANSWER_VOTED, ANSWER_ACCEPTED -> questionCache.invalidate(event.getQuestionId());
+                default -> { }
+            }
+        } catch (Exception e) {
+            // The record key is the question id for answer events too
+            log.warn("Failed to decode answer event, invalidating by key: partition={}, offset={}",
+                    record.partition(), record.offset(), e);
+            questionCache.invalidate(record.key());
+        }
+    }
+}
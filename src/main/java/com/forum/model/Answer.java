@@ -1,16 +1,23 @@
 package com.forum.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
 @Document(collection = "answers")
+@CompoundIndex(name = "questionId_accepted_rankScore_createdAt",
+        def = "{'questionId': 1, 'accepted': -1, 'rankScore': -1, 'createdAt': 1}")
 public class Answer {
 
     @Id
     private String id;
+
+    @Indexed
     private String questionId;
+
     private String body;
     private String authorId;
     private int votes;
@@ -18,6 +25,14 @@ public class Answer {
     private Instant createdAt;
     private Instant updatedAt;
 
+    // Set asynchronously by AnswerScoringPipeline; null until scored
+    private Double qualityScore;
+    private String qualityFeedback;
+    private Instant qualityScoredAt;
+
+    // Composite ranking (AnswerRanking), kept current by every write to its inputs
+    private Double rankScore;
+
     public Answer() {
         this.createdAt = Instant.now();
         this.updatedAt = Instant.now();
@@ -46,4 +61,16 @@ public class Answer {
 
     public Instant getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    public Double getQualityScore() { return qualityScore; }
+    public void setQualityScore(Double qualityScore) { this.qualityScore = qualityScore; }
+
+    public String getQualityFeedback() { return qualityFeedback; }
+    public void setQualityFeedback(String qualityFeedback) { this.qualityFeedback = qualityFeedback; }
+
+    public Instant getQualityScoredAt() { return qualityScoredAt; }
+    public void setQualityScoredAt(Instant qualityScoredAt) { this.qualityScoredAt = qualityScoredAt; }
+
+    public Double getRankScore() { return rankScore; }
+    public void setRankScore(Double rankScore) { this.rankScore = rankScore; }
 }
@@ -0,0 +1,27 @@
+package com.forum.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. next is an opaque cursor for the
+ * following page, or null when this is the last page.
+ */
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String next;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNext() { return next; }
+    public void setNext(String next) { this.next = next; }
+}
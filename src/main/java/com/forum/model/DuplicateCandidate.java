@@ -0,0 +1,30 @@
+package com.forum.model;
+
+/**
+ * An existing question that looks like a near-duplicate, with the estimated
+ * Jaccard similarity of their title and body shingles.
+ */
+public class DuplicateCandidate {
+
+    private String questionId;
+    private String title;
+    private double similarity;
+
+    public DuplicateCandidate() {
+    }
+
+    public DuplicateCandidate(String questionId, String title, double similarity) {
+        this.questionId = questionId;
+        this.title = title;
+        this.similarity = similarity;
+    }
+
+    public String getQuestionId() { return questionId; }
+    public void setQuestionId(String questionId) { this.questionId = questionId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public double getSimilarity() { return similarity; }
+    public void setSimilarity(double similarity) { this.similarity = similarity; }
+}
@@ -0,0 +1,30 @@
+package com.forum.model;
+
+/**
+ * Estimated count of a search query in the current analytics window, with
+ * the estimate from the window before it for comparison.
+ */
+public class QueryCount {
+
+    private String query;
+    private long count;
+    private long previousCount;
+
+    public QueryCount() {
+    }
+
+    public QueryCount(String query, long count, long previousCount) {
+        this.query = query;
+        this.count = count;
+        this.previousCount = previousCount;
+    }
+
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public long getPreviousCount() { return previousCount; }
+    public void setPreviousCount(long previousCount) { this.previousCount = previousCount; }
+}
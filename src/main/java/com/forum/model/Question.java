@@ -1,6 +1,7 @@
 package com.forum.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -9,6 +10,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "questions")
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "tags_createdAt_id", def = "{'tags': 1, 'createdAt': -1, '_id': -1}")
 public class Question {
 
     @Id
@@ -28,9 +31,22 @@ public class Question {
     private Instant createdAt;
     private Instant updatedAt;
 
+    // Incremented on every write to the question or its answers; the response ETag is built from it
+    private long version;
+
+    // Answer statistics, maintained by QuestionStatsService
+    private int answerCount;
+    private String acceptedAnswerId;
+    private long totalAnswerVotes;
+    private Instant lastActivityAt;
+
+    // Near-duplicates found by DuplicateIndex when the question was created
+    private List<String> possibleDuplicateIds = new ArrayList<>();
+
     public Question() {
         this.createdAt = Instant.now();
         this.updatedAt = Instant.now();
+        this.lastActivityAt = this.createdAt;
     }
 
     public String getId() { return id; }
@@ -56,4 +72,22 @@ public class Question {
 
     public Instant getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public int getAnswerCount() { return answerCount; }
+    public void setAnswerCount(int answerCount) { this.answerCount = answerCount; }
+
+    public String getAcceptedAnswerId() { return acceptedAnswerId; }
+    public void setAcceptedAnswerId(String acceptedAnswerId) { this.acceptedAnswerId = acceptedAnswerId; }
+
+    public long getTotalAnswerVotes() { return totalAnswerVotes; }
+    public void setTotalAnswerVotes(long totalAnswerVotes) { this.totalAnswerVotes = totalAnswerVotes; }
+
+    public Instant getLastActivityAt() { return lastActivityAt; }
+    public void setLastActivityAt(Instant lastActivityAt) { this.lastActivityAt = lastActivityAt; }
+
+    public List<String> getPossibleDuplicateIds() { return possibleDuplicateIds; }
+    public void setPossibleDuplicateIds(List<String> possibleDuplicateIds) { this.possibleDuplicateIds = possibleDuplicateIds; }
 }
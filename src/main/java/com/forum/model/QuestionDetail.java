@@ -0,0 +1,40 @@
+package com.forum.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the question page renders, in one response: the question, its
+ * answers ranked accepted-first then by votes, the total answer count (answers
+ * may be limited) and the display names of every author involved.
+ */
+public class QuestionDetail {
+
+    private Question question;
+    private List<Answer> answers;
+    private long answerCount;
+    private Map<String, String> authorNames;
+
+    public QuestionDetail() {
+    }
+
+    public QuestionDetail(Question question, List<Answer> answers, long answerCount,
+                          Map<String, String> authorNames) {
+        this.question = question;
+        this.answers = answers;
+        this.answerCount = answerCount;
+        this.authorNames = authorNames;
+    }
+
+    public Question getQuestion() { return question; }
+    public void setQuestion(Question question) { this.question = question; }
+
+    public List<Answer> getAnswers() { return answers; }
+    public void setAnswers(List<Answer> answers) { this.answers = answers; }
+
+    public long getAnswerCount() { return answerCount; }
+    public void setAnswerCount(long answerCount) { this.answerCount = answerCount; }
+
+    public Map<String, String> getAuthorNames() { return authorNames; }
+    public void setAuthorNames(Map<String, String> authorNames) { this.authorNames = authorNames; }
+}
@@ -0,0 +1,65 @@
+package com.forum.model;
+
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List-view read model of a question: everything a question card shows, with
+ * a short excerpt instead of the full body. Loaded straight from the questions
+ * collection with a field projection (see QuestionProjections).
+ */
+public class QuestionSummary {
+
+    @Id
+    private String id;
+    private String title;
+    private String excerpt;
+    private List<String> tags = new ArrayList<>();
+    private String authorId;
+    private int votes;
+    private int answerCount;
+    private String acceptedAnswerId;
+    private long totalAnswerVotes;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant lastActivityAt;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getExcerpt() { return excerpt; }
+    public void setExcerpt(String excerpt) { this.excerpt = excerpt; }
+
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+
+    public String getAuthorId() { return authorId; }
+    public void setAuthorId(String authorId) { this.authorId = authorId; }
+
+    public int getVotes() { return votes; }
+    public void setVotes(int votes) { this.votes = votes; }
+
+    public int getAnswerCount() { return answerCount; }
+    public void setAnswerCount(int answerCount) { this.answerCount = answerCount; }
+
+    public String getAcceptedAnswerId() { return acceptedAnswerId; }
+    public void setAcceptedAnswerId(String acceptedAnswerId) { this.acceptedAnswerId = acceptedAnswerId; }
+
+    public long getTotalAnswerVotes() { return totalAnswerVotes; }
+    public void setTotalAnswerVotes(long totalAnswerVotes) { this.totalAnswerVotes = totalAnswerVotes; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    public Instant getLastActivityAt() { return lastActivityAt; }
+    public void setLastActivityAt(Instant lastActivityAt) { this.lastActivityAt = lastActivityAt; }
+}
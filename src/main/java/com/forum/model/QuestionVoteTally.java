@@ -0,0 +1,33 @@
+package com.forum.model;
+
+import org.springframework.data.annotation.Id;
+
+/**
+ * Per-question result of the grouped answer aggregation.
+ * The aggregation groups by questionId, which lands in _id.
+ */
+public class QuestionVoteTally {
+
+    @Id
+    private String questionId;
+    private int totalVotes;
+    private int answerCount;
+
+    public QuestionVoteTally() {
+    }
+
+    public QuestionVoteTally(String questionId, int totalVotes, int answerCount) {
+        this.questionId = questionId;
+        this.totalVotes = totalVotes;
+        this.answerCount = answerCount;
+    }
+
+    public String getQuestionId() { return questionId; }
+    public void setQuestionId(String questionId) { this.questionId = questionId; }
+
+    public int getTotalVotes() { return totalVotes; }
+    public void setTotalVotes(int totalVotes) { this.totalVotes = totalVotes; }
+
+    public int getAnswerCount() { return answerCount; }
+    public void setAnswerCount(int answerCount) { this.answerCount = answerCount; }
+}
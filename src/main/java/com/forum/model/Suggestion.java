@@ -0,0 +1,34 @@
+package com.forum.model;
+
+/**
+ * One type-ahead suggestion: a question title (questionId set) or a tag.
+ */
+public class Suggestion {
+
+    private String text;
+    private String type;
+    private String questionId;
+    private long weight;
+
+    public Suggestion() {
+    }
+
+    public Suggestion(String text, String type, String questionId, long weight) {
+        this.text = text;
+        this.type = type;
+        this.questionId = questionId;
+        this.weight = weight;
+    }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getQuestionId() { return questionId; }
+    public void setQuestionId(String questionId) { this.questionId = questionId; }
+
+    public long getWeight() { return weight; }
+    public void setWeight(long weight) { this.weight = weight; }
+}
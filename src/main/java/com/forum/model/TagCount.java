@@ -0,0 +1,30 @@
+package com.forum.model;
+
+/**
+ * A tag with a count: questions using it overall, or within a result set
+ * when used as a search facet.
+ */
+public class TagCount {
+
+    private String tag;
+    private long count;
+    private long recentActivity;
+
+    public TagCount() {
+    }
+
+    public TagCount(String tag, long count, long recentActivity) {
+        this.tag = tag;
+        this.count = count;
+        this.recentActivity = recentActivity;
+    }
+
+    public String getTag() { return tag; }
+    public void setTag(String tag) { this.tag = tag; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public long getRecentActivity() { return recentActivity; }
+    public void setRecentActivity(long recentActivity) { this.recentActivity = recentActivity; }
+}
@@ -0,0 +1,63 @@
+package com.forum.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress marker for a paged vote tally run, keyed by job id.
+ * A resumed run continues after lastQuestionId. owner and leaseUntil are set
+ * while a run is active and keep a second run of the same job out.
+ */
+@Document(collection = "vote_tally_checkpoints")
+public class VoteTallyCheckpoint {
+
+    @Id
+    private String jobId;
+    private String lastQuestionId;
+    private long questionsProcessed;
+    private long totalVotes;
+    private boolean completed;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private String owner;
+    private Instant leaseUntil;
+
+    public VoteTallyCheckpoint() {
+        this.startedAt = Instant.now();
+        this.updatedAt = Instant.now();
+    }
+
+    public VoteTallyCheckpoint(String jobId) {
+        this();
+        this.jobId = jobId;
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getLastQuestionId() { return lastQuestionId; }
+    public void setLastQuestionId(String lastQuestionId) { this.lastQuestionId = lastQuestionId; }
+
+    public long getQuestionsProcessed() { return questionsProcessed; }
+    public void setQuestionsProcessed(long questionsProcessed) { this.questionsProcessed = questionsProcessed; }
+
+    public long getTotalVotes() { return totalVotes; }
+    public void setTotalVotes(long totalVotes) { this.totalVotes = totalVotes; }
+
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public Instant getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(Instant leaseUntil) { this.leaseUntil = leaseUntil; }
+}
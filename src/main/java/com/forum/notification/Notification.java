@@ -1,11 +1,14 @@
 package com.forum.notification;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
 @Document(collection = "notifications")
+@CompoundIndex(name = "recipientId_createdAt_id", def = "{'recipientId': 1, 'createdAt': -1, '_id': -1}")
 public class Notification {
 
     @Id
@@ -17,6 +20,12 @@ public class Notification {
     private String questionId;
     private String answerId;
     private boolean read;
+
+    // ForumEvent.eventId of the event this notification was built from
+    @Indexed(unique = true, sparse = true)
+    private String eventId;
+
+    @Indexed
     private Instant createdAt;
 
     public Notification() {
@@ -45,6 +54,9 @@ public class Notification {
     public String getAnswerId() { return answerId; }
     public void setAnswerId(String answerId) { this.answerId = answerId; }
 
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
     public boolean isRead() { return read; }
     public void setRead(boolean read) { this.read = read; }
 
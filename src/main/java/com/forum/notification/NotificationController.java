@@ -1,5 +1,8 @@
 package com.forum.notification;
 
+import com.forum.model.CursorPage;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -14,9 +17,25 @@ public class NotificationController {
         this.notificationService = notificationService;
     }
 
+    // One keyset page by default; the full list is the NDJSON export below
     @GetMapping("/{userId}")
-    public Flux<Notification> getNotifications(@PathVariable String userId) {
-        return notificationService.getNotifications(userId);
+    public Mono<CursorPage<Notification>> getNotifications(@PathVariable String userId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit) {
+        return notificationService.getNotificationsPage(userId, cursor, limit);
+    }
+
+    @GetMapping(value = "/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Notification> streamNotifications(@PathVariable String userId) {
+        return notificationService.getNotifications(userId)
+                .limitRate(256);
+    }
+
+    @GetMapping("/{userId}/page")
+    public Mono<CursorPage<Notification>> getNotificationsPage(@PathVariable String userId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer limit) {
+        return notificationService.getNotificationsPage(userId, cursor, limit);
     }
 
     @GetMapping("/{userId}/unread")
@@ -24,6 +43,12 @@ public class NotificationController {
         return notificationService.getUnreadNotifications(userId);
     }
 
+    // Live push of new notifications; replaces polling /unread
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Notification>> stream(@PathVariable String userId) {
+        return notificationService.streamNotifications(userId);
+    }
+
     @PutMapping("/{notificationId}/read")
     public Mono<Notification> markAsRead(@PathVariable String notificationId) {
         return notificationService.markAsRead(notificationId);
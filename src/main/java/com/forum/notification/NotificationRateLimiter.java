@@ -0,0 +1,243 @@
+package com.forum.notification;
+
+import com.forum.stats.StatsProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-question sliding-window counter for notifications.
+ *
+ * Each question holds the timestamps of its notifications inside the window
+ * (at most maxPerWindow of them). Acquire and release lock only that
+ * question's window, so different questions never contend and concurrent
+ * events for the same question cannot both take the last slot.
+ *
+ * Windows live in a Caffeine cache bounded to maxQuestions, so eviction is
+ * amortized O(1) instead of a sort on the acquire path. A window idle for a
+ * whole window length holds no live stamps and expires on its own.
+ *
+ * At startup the windows are rebuilt from the notifications saved before this
+ * instance started, in the last window length. Callers wait on {@link #whenReady()}
+ * before acquiring, so nothing is let through against half-rebuilt windows and
+ * live notifications are never counted twice.
+ */
+@Component
+public class NotificationRateLimiter implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRateLimiter.class);
+
+    private final NotificationRepository notificationRepository;
+    private final int maxPerWindow;
+    private final long windowMillis;
+    private final Instant startedAt = Instant.now();
+
+    private final Cache<String, Window> windows;
+    private final Sinks.Empty<Void> ready = Sinks.empty();
+    private final AtomicBoolean rebuilt = new AtomicBoolean(false);
+
+    private final AtomicLong allowedCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    private final AtomicLong evictedCount = new AtomicLong(0);
+
+    public NotificationRateLimiter(NotificationRepository notificationRepository,
+                                   @Value("${forum.notifications.maxPerQuestion:3}") int maxPerWindow,
+                                   @Value("${forum.notifications.window:24h}") Duration window,
+                                   @Value("${forum.notifications.maxTrackedQuestions:100000}") int maxQuestions) {
+        this.notificationRepository = notificationRepository;
+        this.maxPerWindow = maxPerWindow;
+        this.windowMillis = window.toMillis();
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxQuestions)
+                .expireAfterAccess(window)
+                .evictionListener((String questionId, Window evicted, RemovalCause cause) -> {
+                    if (evicted != null) {
+                        synchronized (evicted) {
+                            evicted.evicted = true;
+                        }
+                        evictedCount.incrementAndGet();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Completes once the startup rebuild has finished (or failed).
+     */
+    public Mono<Void> whenReady() {
+        return ready.asMono();
+    }
+
+    /**
+     * Take a slot for the question at the given time.
+     *
+     * @return false if the question already has maxPerWindow notifications in the window
+     */
+    public boolean tryAcquire(String questionId, Instant at) {
+        if (questionId == null) {
+            return true;
+        }
+        long now = at.toEpochMilli();
+        while (true) {
+            Window window = windows.get(questionId, id -> new Window(maxPerWindow));
+            synchronized (window) {
+                if (window.evicted) {
+                    continue; // lost a race with eviction, retry on a fresh window
+                }
+                window.expire(now - windowMillis);
+                if (window.size >= maxPerWindow) {
+                    rejectedCount.incrementAndGet();
+                    return false;
+                }
+                window.add(now);
+            }
+            allowedCount.incrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * Give back a slot taken by tryAcquire, e.g. when the save failed.
+     */
+    public void release(String questionId, Instant at) {
+        Window window = questionId != null ? windows.getIfPresent(questionId) : null;
+        if (window != null) {
+            synchronized (window) {
+                window.remove(at.toEpochMilli());
+            }
+        }
+    }
+
+    public int currentCount(String questionId) {
+        Window window = questionId != null ? windows.getIfPresent(questionId) : null;
+        if (window == null) {
+            return 0;
+        }
+        synchronized (window) {
+            window.expire(System.currentTimeMillis() - windowMillis);
+            return window.size;
+        }
+    }
+
+    // Record an existing notification without applying the limit
+    private void seed(String questionId, Instant createdAt) {
+        Window window = windows.get(questionId, id -> new Window(maxPerWindow));
+        synchronized (window) {
+            window.seed(createdAt.toEpochMilli());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        // Bounded by startedAt: anything newer was counted by tryAcquire on this instance
+        Instant since = startedAt.minusMillis(windowMillis);
+        notificationRepository.findByCreatedAtBetween(since, startedAt)
+                .filter(notification -> notification.getQuestionId() != null)
+                .doOnNext(notification -> seed(notification.getQuestionId(), notification.getCreatedAt()))
+                .count()
+                .doFinally(signal -> {
+                    rebuilt.set(true);
+                    ready.tryEmitEmpty();
+                })
+                .subscribe(
+                        count -> log.info("Notification rate limiter rebuilt: notifications={}, questions={}",
+                                count, windows.estimatedSize()),
+                        error -> log.error("Failed to rebuild notification rate limiter", error)
+                );
+    }
+
+    @Scheduled(fixedDelayString = "${forum.notifications.sweepIntervalMs:60000}")
+    public void sweepIdle() {
+        windows.cleanUp();
+    }
+
+    @Override
+    public String statsName() {
+        return "notification-rate-limit";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("allowed", allowedCount.get());
+        stats.put("rejected", rejectedCount.get());
+        stats.put("evicted", evictedCount.get());
+        stats.put("trackedQuestions", windows.estimatedSize());
+        stats.put("ready", rebuilt.get());
+        return stats;
+    }
+
+    /**
+     * Timestamps of the notifications in the window, oldest first.
+     */
+    private static final class Window {
+
+        private final long[] stamps;
+        private int size;
+        private boolean evicted;
+
+        private Window(int capacity) {
+            this.stamps = new long[capacity];
+        }
+
+        private void expire(long cutoff) {
+            int drop = 0;
+            while (drop < size && stamps[drop] <= cutoff) {
+                drop++;
+            }
+            if (drop > 0) {
+                System.arraycopy(stamps, drop, stamps, 0, size - drop);
+                size -= drop;
+            }
+        }
+
+        private void add(long stamp) {
+            int i = size;
+            while (i > 0 && stamps[i - 1] > stamp) {
+                stamps[i] = stamps[i - 1];
+                i--;
+            }
+            stamps[i] = stamp;
+            size++;
+        }
+
+        // Keeps the newest stamps if more were saved than the window holds
+        private void seed(long stamp) {
+            if (size == stamps.length) {
+                if (stamp <= stamps[0]) {
+                    return;
+                }
+                System.arraycopy(stamps, 1, stamps, 0, size - 1);
+                size--;
+            }
+            add(stamp);
+        }
+
+        private void remove(long stamp) {
+            for (int i = 0; i < size; i++) {
+                if (stamps[i] == stamp) {
+                    System.arraycopy(stamps, i + 1, stamps, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+    }
+}
@@ -10,4 +10,5 @@ public interface NotificationRepository extends ReactiveMongoRepository<Notifica
     Flux<Notification> findByRecipientIdOrderByCreatedAtDesc(String recipientId);
     Flux<Notification> findByRecipientIdAndReadFalseOrderByCreatedAtDesc(String recipientId);
     Mono<Long> countByQuestionIdAndCreatedAtAfter(String questionId, Instant after);
+    Flux<Notification> findByCreatedAtBetween(Instant from, Instant to);
 }
@@ -1,38 +1,189 @@
 package com.forum.notification;
 
 import com.forum.event.ForumEvent;
+import com.forum.kafka.KafkaProducerService;
+import com.forum.model.CursorPage;
+import com.forum.service.KeysetPager;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 /**
  * Notification service - consumes Kafka events and creates notifications
- * max 3 notifications per question per day.
+ * max 3 notifications per question per day (sliding 24h window).
  */
 @Service
 public class NotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
-    private static final int MAX_NOTIFICATIONS_PER_QUESTION_PER_DAY = 3;
+    private static final int DUPLICATE_KEY = 11000;
 
     private final NotificationRepository notificationRepository;
+    private final NotificationRateLimiter notificationRateLimiter;
+    private final NotificationStreamRegistry notificationStreamRegistry;
+    private final KafkaProducerService kafkaProducerService;
+    private final KeysetPager keysetPager;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               NotificationRateLimiter notificationRateLimiter,
+                               NotificationStreamRegistry notificationStreamRegistry,
+                               KafkaProducerService kafkaProducerService,
+                               KeysetPager keysetPager,
+                               ReactiveMongoTemplate reactiveMongoTemplate) {
         this.notificationRepository = notificationRepository;
+        this.notificationRateLimiter = notificationRateLimiter;
+        this.notificationStreamRegistry = notificationStreamRegistry;
+        this.kafkaProducerService = kafkaProducerService;
+        this.keysetPager = keysetPager;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
     }
 
     public void handleAnswerCreated(ForumEvent event) {
+        Notification notification = buildAnswerCreated(event);
+        if (notification != null) {
+            saveWithRateLimit(notification);
+        }
+    }
+
+    public void handleAnswerAccepted(ForumEvent event) {
+        saveWithRateLimit(buildAnswerAccepted(event));
+    }
+
+    public void handleAnswerVoted(ForumEvent event) {
+        saveWithRateLimit(buildAnswerVoted(event));
+    }
+
+    /**
+     * Batch path for the Kafka batch listener: build notifications for a whole
+     * poll, apply the rate limit and write everything that passes with one
+     * unordered bulk insert.
+     *
+     * The insert is idempotent: notifications carry their event's eventId under
+     * a unique index, so a redelivered batch only writes what is missing and
+     * duplicate-key errors are ignored. Slots are given back for duplicates and,
+     * if the insert fails, is cancelled or times out, for the whole batch.
+     * Waits for the rate limiter's startup rebuild like the single-event path.
+     */
+    public Mono<List<Notification>> saveBatch(List<ForumEvent> events) {
+        return notificationRateLimiter.whenReady().then(Mono.<List<Notification>>defer(() -> {
+            List<Notification> accepted = new ArrayList<>();
+            int skipped = 0;
+            for (ForumEvent event : events) {
+                Notification notification = buildNotification(event);
+                if (notification == null) {
+                    continue;
+                }
+                if (notificationRateLimiter.tryAcquire(notification.getQuestionId(), notification.getCreatedAt())) {
+                    accepted.add(notification);
+                } else {
+                    skipped++;
+                }
+            }
+
+            if (accepted.isEmpty()) {
+                return Mono.just(List.of());
+            }
+
+            // Ids assigned up front so the pushed notifications carry them
+            for (Notification notification : accepted) {
+                notification.setId(new ObjectId().toHexString());
+            }
+
+            int rateLimited = skipped;
+            AtomicBoolean settled = new AtomicBoolean(false);
+            return reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)
+                    .insert(accepted)
+                    .execute()
+                    .map(result -> accepted)
+                    .onErrorResume(error -> duplicateIndexes(error) != null, error -> {
+                        Set<Integer> duplicates = duplicateIndexes(error);
+                        List<Notification> inserted = new ArrayList<>(accepted.size() - duplicates.size());
+                        for (int i = 0; i < accepted.size(); i++) {
+                            Notification notification = accepted.get(i);
+                            if (duplicates.contains(i)) {
+                                notificationRateLimiter.release(notification.getQuestionId(), notification.getCreatedAt());
+                            } else {
+                                inserted.add(notification);
+                            }
+                        }
+                        log.info("Notification batch had {} already-written events", duplicates.size());
+                        return Mono.just(inserted);
+                    })
+                    .doOnNext(saved -> {
+                        settled.set(true);
+                        log.info("Notification batch saved: events={}, saved={}, rateLimited={}",
+                                events.size(), saved.size(), rateLimited);
+                        saved.forEach(this::push);
+                    })
+                    .doFinally(signal -> {
+                        // Error, cancel or timeout: nothing is known to be written
+                        if (!settled.get()) {
+                            accepted.forEach(notification -> notificationRateLimiter.release(
+                                    notification.getQuestionId(), notification.getCreatedAt()));
+                        }
+                    });
+        }));
+    }
+
+    /**
+     * Positions of the batch that failed only because they were already written,
+     * or null if the error is anything else.
+     */
+    private static Set<Integer> duplicateIndexes(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            List<BulkWriteError> writeErrors = null;
+            if (cause instanceof BulkOperationException bulk) {
+                writeErrors = bulk.getErrors();
+            } else if (cause instanceof MongoBulkWriteException bulk) {
+                writeErrors = bulk.getWriteErrors();
+            }
+            if (writeErrors != null) {
+                Set<Integer> indexes = new HashSet<>();
+                for (BulkWriteError writeError : writeErrors) {
+                    if (writeError.getCode() != DUPLICATE_KEY) {
+                        return null;
+                    }
+                    indexes.add(writeError.getIndex());
+                }
+                return indexes;
+            }
+        }
+        return null;
+    }
+
+    private Notification buildNotification(ForumEvent event) {
+        return switch (event.getEventType()) {
+            case ANSWER_CREATED -> buildAnswerCreated(event);
+            case ANSWER_ACCEPTED -> buildAnswerAccepted(event);
+            case ANSWER_VOTED -> buildAnswerVoted(event);
+            default -> null;
+        };
+    }
+
+    private Notification buildAnswerCreated(ForumEvent event) {
         if (event.getQuestionAuthorId() != null
                 && event.getQuestionAuthorId().equals(event.getAuthorId())) {
             log.info("Skipping self-answer notification for user={}", event.getAuthorId());
-            return;
+            return null;
         }
 
         Notification notification = new Notification();
@@ -42,11 +193,11 @@ public class NotificationService {
         notification.setMessage("Someone answered your question: " + event.getTitle());
         notification.setQuestionId(event.getQuestionId());
         notification.setAnswerId(event.getAnswerId());
-
-        saveWithRateLimit(notification);
+        notification.setEventId(event.getEventId());
+        return notification;
     }
 
-    public void handleAnswerAccepted(ForumEvent event) {
+    private Notification buildAnswerAccepted(ForumEvent event) {
         Notification notification = new Notification();
         notification.setRecipientId(event.getAuthorId());
         notification.setType("ANSWER_ACCEPTED");
@@ -54,11 +205,11 @@ public class NotificationService {
         notification.setMessage("Your answer on \"" + event.getTitle() + "\" was marked as accepted.");
         notification.setQuestionId(event.getQuestionId());
         notification.setAnswerId(event.getAnswerId());
-
-        saveWithRateLimit(notification);
+        notification.setEventId(event.getEventId());
+        return notification;
     }
 
-    public void handleAnswerVoted(ForumEvent event) {
+    private Notification buildAnswerVoted(ForumEvent event) {
         Notification notification = new Notification();
         notification.setRecipientId(event.getAuthorId());
         notification.setType("ANSWER_VOTED");
@@ -66,39 +217,86 @@ public class NotificationService {
         notification.setMessage("Someone voted on your answer in \"" + event.getTitle() + "\".");
         notification.setQuestionId(event.getQuestionId());
         notification.setAnswerId(event.getAnswerId());
-
-        saveWithRateLimit(notification);
+        notification.setEventId(event.getEventId());
+        return notification;
     }
 
-   //Max 3 per question per day
+    // Max 3 per question per day, decided in memory by the sliding-window limiter
     private void saveWithRateLimit(Notification notification) {
-        Instant startOfDay = LocalDate.now().atStartOfDay().toInstant(ZoneOffset.UTC);
-
-        notificationRepository.countByQuestionIdAndCreatedAtAfter(
-                        notification.getQuestionId(), startOfDay)
-                .subscribeOn(Schedulers.boundedElastic())
-                .flatMap(count -> {
-                    if (count >= MAX_NOTIFICATIONS_PER_QUESTION_PER_DAY) {
-                        log.info("Rate limit reached: questionId={}, count={}/{}. Skipping notification.",
-                                notification.getQuestionId(), count, MAX_NOTIFICATIONS_PER_QUESTION_PER_DAY);
+        String questionId = notification.getQuestionId();
+        notificationRateLimiter.whenReady()
+                .then(Mono.<Notification>defer(() -> {
+                    if (!notificationRateLimiter.tryAcquire(questionId, notification.getCreatedAt())) {
+                        log.info("Rate limit reached: questionId={}. Skipping notification.", questionId);
                         return Mono.<Notification>empty();
                     }
-
-                    log.info("Sending notification: questionId={}, dailyCount={}/{}",
-                            notification.getQuestionId(), count + 1, MAX_NOTIFICATIONS_PER_QUESTION_PER_DAY);
-                    return notificationRepository.save(notification);
-                })
+                    log.info("Sending notification: questionId={}, windowCount={}",
+                            questionId, notificationRateLimiter.currentCount(questionId));
+                    return notificationRepository.save(notification)
+                            .doOnError(error -> notificationRateLimiter.release(questionId, notification.getCreatedAt()))
+                            // Redelivered event, written and pushed the first time
+                            .onErrorResume(DuplicateKeyException.class, error -> Mono.empty());
+                }))
                 .subscribe(
-                        saved -> log.info("Notification created: id={}, recipient={}, type={}",
-                                saved.getId(), saved.getRecipientId(), saved.getType()),
+                        saved -> {
+                            log.info("Notification created: id={}, recipient={}, type={}",
+                                    saved.getId(), saved.getRecipientId(), saved.getType());
+                            push(saved);
+                        },
                         error -> log.error("Failed to create notification", error)
                 );
     }
 
+    /**
+     * Deliver a saved notification to live streams: directly to connections on
+     * this instance, and through the answers topic to the other instances.
+     */
+    private void push(Notification saved) {
+        notificationStreamRegistry.publish(saved);
+
+        if (kafkaProducerService.isEnabled()) {
+            ForumEvent event = new ForumEvent(ForumEvent.EventType.NOTIFICATION_CREATED);
+            event.setQuestionId(saved.getQuestionId());
+            event.setAnswerId(saved.getAnswerId());
+            event.setRecipientId(saved.getRecipientId());
+            event.setNotificationId(saved.getId());
+            event.setNotificationType(saved.getType());
+            event.setTitle(saved.getTitle());
+            event.setBody(saved.getMessage());
+            event.setTimestamp(saved.getCreatedAt());
+            kafkaProducerService.publishEvent(event);
+        }
+    }
+
+    /**
+     * Rebuild a notification pushed by another instance.
+     */
+    public static Notification fromEvent(ForumEvent event) {
+        Notification notification = new Notification();
+        notification.setId(event.getNotificationId());
+        notification.setRecipientId(event.getRecipientId());
+        notification.setType(event.getNotificationType());
+        notification.setTitle(event.getTitle());
+        notification.setMessage(event.getBody());
+        notification.setQuestionId(event.getQuestionId());
+        notification.setAnswerId(event.getAnswerId());
+        notification.setCreatedAt(event.getTimestamp());
+        return notification;
+    }
+
+    public Flux<ServerSentEvent<Notification>> streamNotifications(String userId) {
+        return notificationStreamRegistry.stream(userId);
+    }
+
     public Flux<Notification> getNotifications(String userId) {
         return notificationRepository.findByRecipientIdOrderByCreatedAtDesc(userId);
     }
 
+    public Mono<CursorPage<Notification>> getNotificationsPage(String userId, String cursor, Integer limit) {
+        return keysetPager.page(where("recipientId").is(userId), "createdAt", cursor, limit,
+                Notification.class, Notification::getCreatedAt, Notification::getId);
+    }
+
     public Flux<Notification> getUnreadNotifications(String userId) {
         return notificationRepository.findByRecipientIdAndReadFalseOrderByCreatedAtDesc(userId);
     }
@@ -0,0 +1,103 @@
+package com.forum.notification;
+
+import com.forum.stats.StatsProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory registry of live notification streams, one sink per connected user.
+ *
+ * A user's channel exists only while at least one connection is open. All
+ * connections share a single heartbeat timer, so an idle subscriber costs a
+ * map entry and a subscription, with no polling and no per-connection timer.
+ */
+@Component
+public class NotificationStreamRegistry implements StatsProvider {
+
+    private final ConcurrentHashMap<String, UserChannel> channels = new ConcurrentHashMap<>();
+    private final Flux<ServerSentEvent<Notification>> heartbeat;
+    private final AtomicLong failedEmits = new AtomicLong(0);
+
+    public NotificationStreamRegistry(@Value("${forum.notifications.heartbeat:25s}") Duration heartbeatInterval) {
+        this.heartbeat = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.<Notification>builder().comment("keepalive").build())
+                .share();
+    }
+
+    public Flux<ServerSentEvent<Notification>> stream(String userId) {
+        return Flux.defer(() -> {
+            UserChannel channel = channels.compute(userId, (id, existing) -> {
+                UserChannel c = existing != null ? existing : new UserChannel();
+                c.subscribers++;
+                return c;
+            });
+
+            Flux<ServerSentEvent<Notification>> events = channel.sink.asFlux()
+                    .map(notification -> ServerSentEvent.builder(notification)
+                            .id(notification.getId())
+                            .event("notification")
+                            .build());
+
+            return Flux.merge(events, heartbeat)
+                    .doFinally(signal -> channels.computeIfPresent(userId, (id, c) ->
+                            c == channel && --c.subscribers == 0 ? null : c));
+        });
+    }
+
+    /**
+     * Push to the recipient's open connections, if any.
+     *
+     * @return true if the recipient had a connection on this instance
+     */
+    public boolean publish(Notification notification) {
+        if (notification.getRecipientId() == null) {
+            return false;
+        }
+        UserChannel channel = channels.get(notification.getRecipientId());
+        if (channel == null) {
+            return false;
+        }
+        Sinks.EmitResult result;
+        // Pushes arrive from Mongo callbacks and the Kafka fan-out; the sink needs one emitter at a time
+        synchronized (channel) {
+            result = channel.sink.tryEmitNext(notification);
+        }
+        if (result.isFailure()) {
+            failedEmits.incrementAndGet();
+        }
+        return true;
+    }
+
+    @Override
+    public String statsName() {
+        return "notification-streams";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        int connections = 0;
+        for (UserChannel channel : channels.values()) {
+            connections += channel.subscribers;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("users", channels.size());
+        stats.put("connections", connections);
+        stats.put("failedEmits", failedEmits.get());
+        return stats;
+    }
+
+    private static final class UserChannel {
+        // Slow consumers drop pushes; the notification itself is already stored
+        private final Sinks.Many<Notification> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers;
+    }
+}
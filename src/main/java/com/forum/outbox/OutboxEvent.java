@@ -0,0 +1,68 @@
+package com.forum.outbox;
+
+import com.forum.event.ForumEvent;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Forum event waiting to be relayed to Kafka.
+ * Written right after the domain write; deleted once the broker acked it.
+ * An event that keeps failing is dead-lettered: deadLetteredAt is set and
+ * nextAttemptAt cleared, so the relay no longer picks it up.
+ */
+@Document(collection = "event_outbox")
+@CompoundIndex(name = "createdAt_id_nextAttemptAt", def = "{'createdAt': 1, '_id': 1, 'nextAttemptAt': 1}")
+@CompoundIndex(name = "key_nextAttemptAt", def = "{'key': 1, 'nextAttemptAt': 1}")
+public class OutboxEvent {
+
+    @Id
+    private String id;
+    private String topic;
+    private String key;
+    private ForumEvent event;
+    // Instance that wrote the event; sent as the origin header whoever relays it
+    private String origin;
+    private int attempts;
+    private Instant nextAttemptAt;
+    private String lastError;
+    private Instant deadLetteredAt;
+    private Instant createdAt;
+
+    public OutboxEvent() {
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getTopic() { return topic; }
+    public void setTopic(String topic) { this.topic = topic; }
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public ForumEvent getEvent() { return event; }
+    public void setEvent(ForumEvent event) { this.event = event; }
+
+    public String getOrigin() { return origin; }
+    public void setOrigin(String origin) { this.origin = origin; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public Instant getDeadLetteredAt() { return deadLetteredAt; }
+    public void setDeadLetteredAt(Instant deadLetteredAt) { this.deadLetteredAt = deadLetteredAt; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,311 @@
+package com.forum.outbox;
+
+import com.forum.kafka.KafkaProducerService;
+import com.forum.stats.StatsProvider;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Drains the event outbox to Kafka.
+ *
+ * Each run reads the oldest events that are due and groups them by Kafka key.
+ * Events of one key are sent strictly one after another; different keys are
+ * sent concurrently so the producer can batch them. When a send fails, that
+ * event is rescheduled with exponential backoff and every later event of its
+ * key waits for it, keeping per-key order. After maxAttempts failures the
+ * event is dead-lettered and stops holding its key back. Delivered events are
+ * removed with one bulk delete.
+ *
+ * Every instance runs the relay, but only the holder of the outbox lease
+ * relays; the others take over once the lease expires. The lease is renewed
+ * on every run, so leaseTtl must be well above the poll interval and the
+ * producer's delivery timeout. Delivery is at least once either way.
+ */
+@Component
+public class OutboxRelay implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final String LEASE_ID = "relay";
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final OutboxRepository outboxRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final boolean relayEnabled;
+    private final int batchSize;
+    private final int keyConcurrency;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final Duration leaseTtl;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean leaseHeld = new AtomicBoolean(false);
+    private final AtomicLong relayedCount = new AtomicLong(0);
+    private final AtomicLong failedAttempts = new AtomicLong(0);
+    private final AtomicLong deadLetteredCount = new AtomicLong(0);
+    private final AtomicLong heldBackCount = new AtomicLong(0);
+    private final AtomicLong runCount = new AtomicLong(0);
+    private final AtomicReference<Instant> lastRelayAt = new AtomicReference<>();
+
+    public OutboxRelay(ReactiveMongoTemplate reactiveMongoTemplate,
+                       OutboxRepository outboxRepository,
+                       KafkaProducerService kafkaProducerService,
+                       @Value("${forum.outbox.relayEnabled:true}") boolean relayEnabled,
+                       @Value("${forum.outbox.batchSize:500}") int batchSize,
+                       @Value("${forum.outbox.keyConcurrency:16}") int keyConcurrency,
+                       @Value("${forum.outbox.baseBackoff:500ms}") Duration baseBackoff,
+                       @Value("${forum.outbox.maxBackoff:60s}") Duration maxBackoff,
+                       @Value("${forum.outbox.maxAttempts:20}") int maxAttempts,
+                       @Value("${forum.outbox.leaseTtl:3m}") Duration leaseTtl) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.outboxRepository = outboxRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.relayEnabled = relayEnabled;
+        this.batchSize = batchSize;
+        this.keyConcurrency = keyConcurrency;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+        this.leaseTtl = leaseTtl;
+    }
+
+    @Scheduled(fixedDelayString = "${forum.outbox.pollIntervalMs:200}")
+    public void scheduledRelay() {
+        if (!relayEnabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        claimLease()
+                .flatMap(held -> held ? relayBatch() : Mono.just(0))
+                .doFinally(signal -> running.set(false))
+                .subscribe(
+                        relayed -> {
+                            if (relayed > 0) {
+                                log.debug("Outbox relayed {} events", relayed);
+                            }
+                        },
+                        error -> log.error("Outbox relay run failed", error)
+                );
+    }
+
+    /**
+     * Takes or renews the outbox lease. Matches a released lease (no
+     * leaseUntil) or an expired one, and fails to match only while another
+     * instance holds a live lease; the upsert then collides with its document.
+     */
+    private Mono<Boolean> claimLease() {
+        Instant now = Instant.now();
+        Query query = Query.query(where("_id").is(LEASE_ID)
+                .orOperator(where("owner").is(instanceId), where("leaseUntil").is(null),
+                        where("leaseUntil").lt(now)));
+        Update update = new Update()
+                .set("owner", instanceId)
+                .set("leaseUntil", now.plus(leaseTtl));
+
+        return reactiveMongoTemplate.findAndModify(query, update,
+                        FindAndModifyOptions.options().upsert(true).returnNew(true), OutboxRelayLease.class)
+                .map(lease -> true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false))
+                .defaultIfEmpty(false)
+                .doOnNext(held -> {
+                    if (leaseHeld.getAndSet(held) != held) {
+                        log.info("Outbox relay lease {}: instance={}", held ? "acquired" : "lost", instanceId);
+                    }
+                });
+    }
+
+    // Lets another instance take over right away instead of after leaseTtl
+    @PreDestroy
+    public void releaseLease() {
+        if (!leaseHeld.get()) {
+            return;
+        }
+        try {
+            reactiveMongoTemplate.updateFirst(
+                            Query.query(where("_id").is(LEASE_ID).and("owner").is(instanceId)),
+                            new Update().unset("owner").unset("leaseUntil"), OutboxRelayLease.class)
+                    .block(Duration.ofSeconds(2));
+        } catch (Exception e) {
+            log.warn("Failed to release outbox relay lease: instance={}", instanceId, e);
+        }
+    }
+
+    Mono<Integer> relayBatch() {
+        Instant now = Instant.now();
+        Query query = Query.query(where("nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"))
+                .limit(batchSize);
+
+        return reactiveMongoTemplate.find(query, OutboxEvent.class)
+                .collectList()
+                .flatMap(due -> {
+                    runCount.incrementAndGet();
+                    if (due.isEmpty()) {
+                        return Mono.just(0);
+                    }
+
+                    return earliestWaiting(due, now).flatMap(waiting -> {
+                        Map<String, List<OutboxEvent>> byKey = new LinkedHashMap<>();
+                        for (OutboxEvent entry : due) {
+                            String key = String.valueOf(entry.getKey());
+                            OutboxEvent blocker = waiting.get(key);
+                            if (blocker != null && precedes(blocker, entry)) {
+                                heldBackCount.incrementAndGet();
+                                continue;
+                            }
+                            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+                        }
+
+                        return Flux.fromIterable(byKey.values())
+                                .flatMap(this::relayKey, keyConcurrency)
+                                .flatMapIterable(ids -> ids)
+                                .collectList()
+                                .flatMap(this::deleteDelivered);
+                    });
+                });
+    }
+
+    /**
+     * Earliest event per key that is still backing off. Due events of the same
+     * key created after it must wait, or they would overtake it.
+     */
+    private Mono<Map<String, OutboxEvent>> earliestWaiting(List<OutboxEvent> due, Instant now) {
+        Set<String> keys = new HashSet<>();
+        for (OutboxEvent entry : due) {
+            keys.add(entry.getKey());
+        }
+        Query query = Query.query(where("key").in(keys).and("nextAttemptAt").gt(now))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"));
+        query.fields().include("key", "createdAt");
+
+        return reactiveMongoTemplate.find(query, OutboxEvent.class)
+                .<Map<String, OutboxEvent>>collect(LinkedHashMap::new, (waiting, entry) ->
+                        waiting.putIfAbsent(String.valueOf(entry.getKey()), entry));
+    }
+
+    // Outbox order: createdAt, then _id for events written in the same millisecond
+    private static boolean precedes(OutboxEvent a, OutboxEvent b) {
+        int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+        return byTime != 0 ? byTime < 0 : a.getId().compareTo(b.getId()) < 0;
+    }
+
+    // Sends one key's events in order, stopping at the first one that fails
+    private Mono<List<String>> relayKey(List<OutboxEvent> events) {
+        List<String> delivered = new ArrayList<>();
+        return Flux.fromIterable(events)
+                .concatMap(entry -> Mono.fromFuture(() ->
+                                kafkaProducerService.send(entry.getTopic(), entry.getKey(), entry.getEvent(), entry.getOrigin()))
+                        .thenReturn(entry)
+                        .onErrorResume(error -> reschedule(entry, error).then(Mono.error(error))))
+                .doOnNext(entry -> delivered.add(entry.getId()))
+                .onErrorResume(error -> Mono.empty())
+                .then(Mono.fromSupplier(() -> delivered));
+    }
+
+    private Mono<Void> reschedule(OutboxEvent entry, Throwable error) {
+        failedAttempts.incrementAndGet();
+        int attempts = entry.getAttempts() + 1;
+        Query byId = Query.query(where("_id").is(entry.getId()));
+        if (attempts >= maxAttempts) {
+            deadLetteredCount.incrementAndGet();
+            log.error("Outbox event dead-lettered: id={}, key={}, attempts={}",
+                    entry.getId(), entry.getKey(), attempts, error);
+            Update update = new Update()
+                    .set("attempts", attempts)
+                    .unset("nextAttemptAt")
+                    .set("deadLetteredAt", Instant.now())
+                    .set("lastError", String.valueOf(error.getMessage()));
+            return reactiveMongoTemplate.updateFirst(byId, update, OutboxEvent.class).then();
+        }
+
+        Duration backoff = backoffFor(attempts);
+        log.warn("Outbox send failed: id={}, key={}, attempts={}, retryIn={}ms",
+                entry.getId(), entry.getKey(), attempts, backoff.toMillis(), error);
+
+        Update update = new Update()
+                .set("attempts", attempts)
+                .set("nextAttemptAt", Instant.now().plus(backoff))
+                .set("lastError", String.valueOf(error.getMessage()));
+        return reactiveMongoTemplate.updateFirst(byId, update, OutboxEvent.class).then();
+    }
+
+    private Duration backoffFor(int attempts) {
+        long millis = baseBackoff.toMillis() << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(millis, maxBackoff.toMillis()));
+    }
+
+    private Mono<Integer> deleteDelivered(List<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(0);
+        }
+        return reactiveMongoTemplate.remove(Query.query(where("_id").in(ids)), OutboxEvent.class)
+                .map(result -> {
+                    relayedCount.addAndGet(ids.size());
+                    lastRelayAt.set(Instant.now());
+                    return ids.size();
+                });
+    }
+
+    @Override
+    public String statsName() {
+        return "outbox";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("relayEnabled", relayEnabled);
+        stats.put("leaseHeld", leaseHeld.get());
+        stats.put("relayed", relayedCount.get());
+        stats.put("failedAttempts", failedAttempts.get());
+        stats.put("deadLetteredByThisInstance", deadLetteredCount.get());
+        stats.put("heldBehindRetry", heldBackCount.get());
+        stats.put("runs", runCount.get());
+        stats.put("lastRelayAt", lastRelayAt.get());
+        return stats;
+    }
+
+    @Override
+    public Mono<Map<String, Object>> statsAsync() {
+        return Mono.zip(
+                outboxRepository.countByDeadLetteredAtIsNull(),
+                outboxRepository.findFirstByDeadLetteredAtIsNullOrderByCreatedAtAsc()
+                        .map(oldest -> Duration.between(oldest.getCreatedAt(), Instant.now()).toMillis())
+                        .defaultIfEmpty(0L),
+                outboxRepository.countByDeadLetteredAtIsNotNull()
+        ).map(tuple -> {
+            Map<String, Object> stats = stats();
+            stats.put("pending", tuple.getT1());
+            stats.put("oldestPendingAgeMs", tuple.getT2());
+            stats.put("deadLettered", tuple.getT3());
+            return stats;
+        });
+    }
+}
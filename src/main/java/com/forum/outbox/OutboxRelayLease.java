@@ -0,0 +1,29 @@
+package com.forum.outbox;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Single document naming the instance that currently relays the outbox.
+ * The holder renews leaseUntil on every run; any instance may take over once
+ * it has expired.
+ */
+@Document(collection = "outbox_relay_lease")
+public class OutboxRelayLease {
+
+    @Id
+    private String id;
+    private String owner;
+    private Instant leaseUntil;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public Instant getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(Instant leaseUntil) { this.leaseUntil = leaseUntil; }
+}
@@ -0,0 +1,10 @@
+package com.forum.outbox;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface OutboxRepository extends ReactiveMongoRepository<OutboxEvent, String> {
+    Mono<Long> countByDeadLetteredAtIsNull();
+    Mono<Long> countByDeadLetteredAtIsNotNull();
+    Mono<OutboxEvent> findFirstByDeadLetteredAtIsNullOrderByCreatedAtAsc();
+}
@@ -0,0 +1,45 @@
+package com.forum.outbox;
+
+import com.forum.event.ForumEvent;
+import com.forum.kafka.ForumEventSerde;
+import com.forum.kafka.KafkaProducerService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Entry point for domain services: records a forum event in the outbox as part
+ * of the request, so the HTTP response never waits on the Kafka broker.
+ * OutboxRelay delivers the recorded events in the background.
+ *
+ * Once recorded, the event is also published as a Spring application event so
+ * in-process listeners (the hot feed) can react without waiting for Kafka.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final ForumEventSerde forumEventSerde;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public OutboxService(OutboxRepository outboxRepository,
+                         KafkaProducerService kafkaProducerService,
+                         ForumEventSerde forumEventSerde,
+                         ApplicationEventPublisher applicationEventPublisher) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.forumEventSerde = forumEventSerde;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    public Mono<OutboxEvent> enqueue(ForumEvent event) {
+        OutboxEvent entry = new OutboxEvent();
+        entry.setTopic(kafkaProducerService.resolveTopic(event));
+        entry.setKey(kafkaProducerService.resolveKey(event));
+        entry.setEvent(event);
+        entry.setOrigin(forumEventSerde.instanceId());
+        return outboxRepository.insert(entry)
+                .doOnSuccess(saved -> applicationEventPublisher.publishEvent(event));
+    }
+}
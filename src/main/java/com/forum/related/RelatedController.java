@@ -0,0 +1,29 @@
+package com.forum.related;
+
+import com.forum.model.Question;
+import com.forum.service.QuestionCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+public class RelatedController {
+
+    private final RelatedQuestionsService relatedQuestionsService;
+    private final QuestionCache questionCache;
+
+    public RelatedController(RelatedQuestionsService relatedQuestionsService, QuestionCache questionCache) {
+        this.relatedQuestionsService = relatedQuestionsService;
+        this.questionCache = questionCache;
+    }
+
+    // Neighbour ids come from memory; the documents mostly from QuestionCache
+    @GetMapping("/api/questions/{id}/related")
+    public Flux<Question> related(@PathVariable String id,
+                                  @RequestParam(defaultValue = "5") int limit) {
+        return Flux.fromIterable(relatedQuestionsService.relatedTo(id, Math.max(1, Math.min(limit, 20))))
+                .flatMapSequential(questionCache::get);
+    }
+}
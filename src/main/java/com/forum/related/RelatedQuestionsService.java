@@ -0,0 +1,442 @@
+package com.forum.related;
+
+import com.forum.index.QuestionChangeListener;
+import com.forum.model.Question;
+import com.forum.search.QuestionSearchIndex;
+import com.forum.search.SearchTokenizer;
+import com.forum.stats.StatsProvider;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed "related questions" served from memory.
+ *
+ * Each question is kept as sparse term frequencies over title, body and tags,
+ * weighted like the @TextIndexed fields on Question (3/1/2). A full build
+ * turns them into L2-normalized TF-IDF vectors, builds an inverted index, and
+ * computes every question's top neighbours by cosine similarity in parallel
+ * on a ForkJoinPool. Terms present in more than maxDocFrequency of all
+ * questions are skipped when scoring; they say little and cost the most.
+ *
+ * Questions created or edited between builds are marked dirty and refreshed
+ * on a short schedule against the last build's index and IDF. They only show
+ * up in other questions' lists after the next full build. Lookups are a single
+ * map read.
+ *
+ * A full build runs entirely on its own ForkJoinPool. rebuild() only submits
+ * it, so neither the shared scheduler thread nor the startup loader thread
+ * waits for it; a rebuild requested while one is running is skipped.
+ */
+@Component
+public class RelatedQuestionsService implements QuestionChangeListener, StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedQuestionsService.class);
+
+    // Leaf size of the fork-join split
+    private static final int DOCS_PER_TASK = 256;
+
+    private final boolean enabled;
+    private final int neighbours;
+    private final double maxDocFrequency;
+    private final ForkJoinPool pool;
+
+    // Raw term frequencies per question; source for every build
+    private final ConcurrentHashMap<String, TermFreqs> docs = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, String[]> related = new ConcurrentHashMap<>();
+
+    private volatile Model model;
+    private volatile boolean ready;
+    private final AtomicBoolean building = new AtomicBoolean(false);
+
+    private final AtomicLong builds = new AtomicLong(0);
+    private final AtomicLong lastBuildMs = new AtomicLong(0);
+    private final AtomicLong refreshed = new AtomicLong(0);
+
+    public RelatedQuestionsService(@Value("${forum.related.enabled:true}") boolean enabled,
+                                   @Value("${forum.related.neighbours:10}") int neighbours,
+                                   @Value("${forum.related.maxDocFrequency:0.1}") double maxDocFrequency,
+                                   @Value("${forum.related.parallelism:4}") int parallelism) {
+        this.enabled = enabled;
+        this.neighbours = neighbours;
+        this.maxDocFrequency = maxDocFrequency;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Precomputed neighbours of the question, most similar first.
+     */
+    public List<String> relatedTo(String questionId, int limit) {
+        String[] ids = related.get(questionId);
+        if (ids == null) {
+            return List.of();
+        }
+        List<String> live = new ArrayList<>(Math.min(limit, ids.length));
+        for (String id : ids) {
+            // Skip questions deleted since the list was computed
+            if (docs.containsKey(id)) {
+                live.add(id);
+                if (live.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return live;
+    }
+
+    // --- QuestionChangeListener ---
+
+    @Override
+    public void onQuestionLoaded(Question question) {
+        if (enabled) {
+            docs.put(question.getId(), TermFreqs.of(question));
+        }
+    }
+
+    @Override
+    public void onLoadComplete() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void onQuestionSaved(Question previous, Question current) {
+        if (enabled) {
+            docs.put(current.getId(), TermFreqs.of(current));
+            dirty.add(current.getId());
+        }
+    }
+
+    @Override
+    public void onQuestionDeleted(Question question) {
+        if (enabled) {
+            docs.remove(question.getId());
+            dirty.remove(question.getId());
+            related.remove(question.getId());
+        }
+    }
+
+    // --- Full build ---
+
+    @Scheduled(initialDelayString = "${forum.related.rebuildIntervalMs:3600000}",
+            fixedDelayString = "${forum.related.rebuildIntervalMs:3600000}")
+    public void rebuild() {
+        if (!enabled || !building.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    build();
+                } catch (RuntimeException e) {
+                    log.error("Related questions build failed", e);
+                } finally {
+                    building.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool shut down
+            building.set(false);
+        }
+    }
+
+    // Runs on a pool worker, so the neighbour task forks into the same pool
+    private void build() {
+        long start = System.currentTimeMillis();
+        // Cleared before the snapshot, so later edits stay dirty for the next refresh
+        dirty.clear();
+        Map<String, TermFreqs> snapshot = new HashMap<>(docs);
+
+        Model built = Model.build(snapshot, maxDocFrequency);
+        String[][] neighbourIds = new String[built.size()][];
+        new NeighbourTask(built, neighbourIds, 0, built.size()).invoke();
+
+        for (int doc = 0; doc < built.size(); doc++) {
+            related.put(built.questionIds[doc], neighbourIds[doc]);
+        }
+        related.keySet().retainAll(docs.keySet());
+        model = built;
+        ready = true;
+
+        builds.incrementAndGet();
+        lastBuildMs.set(System.currentTimeMillis() - start);
+        log.info("Related questions built: questions={}, terms={}, elapsedMs={}",
+                built.size(), built.termIds.size(), lastBuildMs.get());
+    }
+
+    private final class NeighbourTask extends RecursiveAction {
+
+        private final Model model;
+        private final String[][] out;
+        private final int from;
+        private final int to;
+
+        private NeighbourTask(Model model, String[][] out, int from, int to) {
+            this.model = model;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= DOCS_PER_TASK) {
+                float[] scores = new float[model.size()];
+                for (int doc = from; doc < to; doc++) {
+                    out[doc] = topNeighbours(model, model.vectors[doc], doc, scores);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new NeighbourTask(model, out, from, mid), new NeighbourTask(model, out, mid, to));
+        }
+    }
+
+    // --- Incremental refresh ---
+
+    @Scheduled(fixedDelayString = "${forum.related.refreshIntervalMs:10000}")
+    public void refreshDirty() {
+        Model current = model;
+        if (!enabled || current == null || dirty.isEmpty()) {
+            return;
+        }
+        float[] scores = new float[current.size()];
+        for (String questionId : List.copyOf(dirty)) {
+            dirty.remove(questionId);
+            TermFreqs freqs = docs.get(questionId);
+            if (freqs == null) {
+                continue;
+            }
+            Integer self = current.docByQuestionId.get(questionId);
+            related.put(questionId, topNeighbours(current, current.vectorOf(freqs), self != null ? self : -1, scores));
+            refreshed.incrementAndGet();
+        }
+    }
+
+    // Cosine over the inverted index; scores is scratch space, left zeroed
+    private String[] topNeighbours(Model model, SparseVector vector, int self, float[] scores) {
+        List<Integer> touched = new ArrayList<>();
+        for (int i = 0; i < vector.terms.length; i++) {
+            Postings postings = model.postings[vector.terms[i]];
+            if (postings == null) {
+                continue;
+            }
+            float weight = vector.weights[i];
+            for (int p = 0; p < postings.docs.length; p++) {
+                int doc = postings.docs[p];
+                if (scores[doc] == 0) {
+                    touched.add(doc);
+                }
+                scores[doc] += weight * postings.weights[p];
+            }
+        }
+
+        PriorityQueue<Integer> heap = new PriorityQueue<>(neighbours + 1,
+                (a, b) -> Float.compare(scores[a], scores[b]));
+        for (int doc : touched) {
+            if (doc != self) {
+                heap.add(doc);
+                if (heap.size() > neighbours) {
+                    heap.poll();
+                }
+            }
+        }
+        String[] ranked = new String[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = model.questionIds[heap.poll()];
+        }
+        for (int doc : touched) {
+            scores[doc] = 0;
+        }
+        return ranked;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public String statsName() {
+        return "related";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Model current = model;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("building", building.get());
+        stats.put("questions", docs.size());
+        stats.put("modelQuestions", current != null ? current.size() : 0);
+        stats.put("modelTerms", current != null ? current.termIds.size() : 0);
+        stats.put("dirty", dirty.size());
+        stats.put("builds", builds.get());
+        stats.put("lastBuildMs", lastBuildMs.get());
+        stats.put("incrementalRefreshes", refreshed.get());
+        return stats;
+    }
+
+    // --- Vectors ---
+
+    /**
+     * Weighted term frequencies of one question, before IDF.
+     */
+    private record TermFreqs(String[] terms, int[] freqs) {
+
+        static TermFreqs of(Question question) {
+            Map<String, Integer> counts = new HashMap<>();
+            for (String term : SearchTokenizer.tokenize(question.getTitle())) {
+                counts.merge(term, QuestionSearchIndex.TITLE_WEIGHT, Integer::sum);
+            }
+            for (String term : SearchTokenizer.tokenize(question.getBody())) {
+                counts.merge(term, QuestionSearchIndex.BODY_WEIGHT, Integer::sum);
+            }
+            for (String term : SearchTokenizer.tokenize(question.getTags())) {
+                counts.merge(term, QuestionSearchIndex.TAG_WEIGHT, Integer::sum);
+            }
+            String[] terms = new String[counts.size()];
+            int[] freqs = new int[counts.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                terms[i] = entry.getKey();
+                freqs[i] = entry.getValue();
+                i++;
+            }
+            return new TermFreqs(terms, freqs);
+        }
+    }
+
+    private record SparseVector(int[] terms, float[] weights) {
+    }
+
+    private record Postings(int[] docs, float[] weights) {
+    }
+
+    /**
+     * One full build: term ids and IDF, a normalized vector per question and
+     * the inverted index over those vectors. Immutable once built.
+     */
+    private static final class Model {
+
+        private final String[] questionIds;
+        private final Map<String, Integer> docByQuestionId;
+        private final Map<String, Integer> termIds;
+        private final float[] idf;
+        private final SparseVector[] vectors;
+        private final Postings[] postings;
+
+        private Model(String[] questionIds, Map<String, Integer> docByQuestionId, Map<String, Integer> termIds,
+                      float[] idf, SparseVector[] vectors, Postings[] postings) {
+            this.questionIds = questionIds;
+            this.docByQuestionId = docByQuestionId;
+            this.termIds = termIds;
+            this.idf = idf;
+            this.vectors = vectors;
+            this.postings = postings;
+        }
+
+        int size() {
+            return questionIds.length;
+        }
+
+        static Model build(Map<String, TermFreqs> snapshot, double maxDocFrequency) {
+            int n = snapshot.size();
+            String[] questionIds = new String[n];
+            Map<String, Integer> docByQuestionId = new HashMap<>(n * 2);
+            Map<String, Integer> termIds = new HashMap<>();
+            int[] df = new int[1024];
+
+            int doc = 0;
+            for (Map.Entry<String, TermFreqs> entry : snapshot.entrySet()) {
+                questionIds[doc] = entry.getKey();
+                docByQuestionId.put(entry.getKey(), doc);
+                for (String term : entry.getValue().terms()) {
+                    int id = termIds.computeIfAbsent(term, t -> termIds.size());
+                    if (id >= df.length) {
+                        df = Arrays.copyOf(df, df.length * 2);
+                    }
+                    df[id]++;
+                }
+                doc++;
+            }
+
+            float[] idf = new float[termIds.size()];
+            for (int t = 0; t < idf.length; t++) {
+                idf[t] = (float) Math.log((1.0 + n) / (1.0 + df[t])) + 1f;
+            }
+
+            Model model = new Model(questionIds, docByQuestionId, termIds, idf, new SparseVector[n],
+                    new Postings[termIds.size()]);
+            for (doc = 0; doc < n; doc++) {
+                model.vectors[doc] = model.vectorOf(snapshot.get(questionIds[doc]));
+            }
+
+            // Inverted index, leaving out terms too common to be worth scoring
+            int maxDf = Math.max(2, (int) (n * maxDocFrequency));
+            int[] fill = new int[termIds.size()];
+            for (int t = 0; t < idf.length; t++) {
+                if (df[t] > 1 && df[t] <= maxDf) {
+                    model.postings[t] = new Postings(new int[df[t]], new float[df[t]]);
+                }
+            }
+            for (doc = 0; doc < n; doc++) {
+                SparseVector vector = model.vectors[doc];
+                for (int i = 0; i < vector.terms().length; i++) {
+                    Postings list = model.postings[vector.terms()[i]];
+                    if (list != null) {
+                        int slot = fill[vector.terms()[i]]++;
+                        list.docs()[slot] = doc;
+                        list.weights()[slot] = vector.weights()[i];
+                    }
+                }
+            }
+            return model;
+        }
+
+        // L2-normalized TF-IDF; terms unknown to this model are dropped
+        SparseVector vectorOf(TermFreqs freqs) {
+            int[] terms = new int[freqs.terms().length];
+            float[] weights = new float[terms.length];
+            int size = 0;
+            double norm = 0;
+            for (int i = 0; i < freqs.terms().length; i++) {
+                Integer id = termIds.get(freqs.terms()[i]);
+                if (id == null) {
+                    continue;
+                }
+                float weight = (float) (1 + Math.log(freqs.freqs()[i])) * idf[id];
+                terms[size] = id;
+                weights[size] = weight;
+                norm += (double) weight * weight;
+                size++;
+            }
+            float scale = norm > 0 ? (float) (1 / Math.sqrt(norm)) : 0;
+            for (int i = 0; i < size; i++) {
+                weights[i] *= scale;
+            }
+            return new SparseVector(Arrays.copyOf(terms, size), Arrays.copyOf(weights, size));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.forum.repository;
+
+import com.forum.model.VoteTallyCheckpoint;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface VoteTallyCheckpointRepository extends ReactiveMongoRepository<VoteTallyCheckpoint, String> {
+}
@@ -0,0 +1,26 @@
+package com.forum.scoring;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Rates answers 0-10 for AnswerScoringPipeline.
+ *
+ * Implementations receive a whole batch and return one result per request, in
+ * the same order. The pipeline applies its own timeout and concurrency limit,
+ * so implementations should not add their own. name() is part of the score
+ * cache key, so a new model or prompt version must change it.
+ */
+public interface AnswerQualityModel {
+
+    String name();
+
+    Mono<List<Result>> score(List<Request> batch);
+
+    record Request(String answerId, String questionTitle, String questionBody, String answerBody) {
+    }
+
+    record Result(double score, String feedback) {
+    }
+}
@@ -0,0 +1,397 @@
+package com.forum.scoring;
+
+import com.forum.event.ForumEvent;
+import com.forum.model.Answer;
+import com.forum.model.Question;
+import com.forum.repository.AnswerRepository;
+import com.forum.service.AnswerRanking;
+import com.forum.service.QuestionCache;
+import com.forum.service.QuestionStatsService;
+import com.forum.stats.StatsProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Scores answers with an AnswerQualityModel in the background.
+ *
+ * ANSWER_CREATED events (published locally by OutboxService) and manual
+ * rescore requests put answer ids on a bounded queue. Batches of up to
+ * batchSize are drained when enough are waiting or on the flush tick, with at
+ * most maxConcurrentBatches model calls in flight; each call is cut off after
+ * modelTimeout and its answers stay unscored. A full queue drops the id.
+ *
+ * Scores are cached by a hash of the model name, question text and answer
+ * body, so rescoring unchanged content does not call the model again. The
+ * score is written to the answer together with its recomputed rankScore, and
+ * the question's version is bumped so cached answer lists are re-rendered.
+ *
+ * The queue lives in memory, so ids queued when an instance stops are lost.
+ * A backfill pass re-queues answers that still have no qualityScore, walking
+ * them in _id order a page at a time as queue space allows, and gives answers
+ * written before rankScore existed their score.
+ */
+@Component
+public class AnswerScoringPipeline implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(AnswerScoringPipeline.class);
+
+    private final AnswerQualityModel model;
+    private final AnswerRepository answerRepository;
+    private final QuestionCache questionCache;
+    private final QuestionStatsService questionStatsService;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxConcurrentBatches;
+    private final Duration modelTimeout;
+    private final int backfillBatch;
+
+    private final BlockingQueue<String> queue;
+    private final Cache<String, AnswerQualityModel.Result> scoreCache;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    private final AtomicLong queuedCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private final AtomicLong batchCount = new AtomicLong(0);
+    private final AtomicLong scoredCount = new AtomicLong(0);
+    private final AtomicLong cacheHitCount = new AtomicLong(0);
+    private final AtomicLong failedCount = new AtomicLong(0);
+    private final AtomicLong backfilledCount = new AtomicLong(0);
+    private final AtomicBoolean backfilling = new AtomicBoolean(false);
+    // Last answer id queued by the backfill pass; null starts a new pass
+    private volatile String backfillAfter;
+
+    public AnswerScoringPipeline(AnswerQualityModel model,
+                                 AnswerRepository answerRepository,
+                                 QuestionCache questionCache,
+                                 QuestionStatsService questionStatsService,
+                                 ReactiveMongoTemplate reactiveMongoTemplate,
+                                 @Value("${forum.scoring.enabled:true}") boolean enabled,
+                                 @Value("${forum.scoring.queueCapacity:10000}") int queueCapacity,
+                                 @Value("${forum.scoring.batchSize:16}") int batchSize,
+                                 @Value("${forum.scoring.maxConcurrentBatches:2}") int maxConcurrentBatches,
+                                 @Value("${forum.scoring.modelTimeout:30s}") Duration modelTimeout,
+                                 @Value("${forum.scoring.cacheSize:50000}") long cacheSize,
+                                 @Value("${forum.scoring.backfillBatch:500}") int backfillBatch) {
+        this.model = model;
+        this.answerRepository = answerRepository;
+        this.questionCache = questionCache;
+        this.questionStatsService = questionStatsService;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxConcurrentBatches = maxConcurrentBatches;
+        this.modelTimeout = modelTimeout;
+        this.backfillBatch = backfillBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.scoreCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Queue an answer for scoring. Never blocks the caller.
+     *
+     * @return false if scoring is disabled or the queue is full
+     */
+    public boolean submit(String answerId) {
+        if (!enabled || answerId == null) {
+            return false;
+        }
+        if (!queue.offer(answerId)) {
+            droppedCount.incrementAndGet();
+            log.debug("Scoring queue full, dropping answer: {}", answerId);
+            return false;
+        }
+        queuedCount.incrementAndGet();
+        if (queue.size() >= batchSize) {
+            drain();
+        }
+        return true;
+    }
+
+    @EventListener
+    public void onForumEvent(ForumEvent event) {
+        if (event.getEventType() == ForumEvent.EventType.ANSWER_CREATED) {
+            submit(event.getAnswerId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${forum.scoring.flushIntervalMs:2000}")
+    public void scheduledFlush() {
+        if (!queue.isEmpty()) {
+            drain();
+        }
+    }
+
+    /**
+     * Queue the next page of answers without a qualityScore, as far as the
+     * queue has room. Runs shortly after startup and then on a slow schedule.
+     */
+    @Scheduled(initialDelayString = "${forum.scoring.backfillInitialDelayMs:30000}",
+            fixedDelayString = "${forum.scoring.backfillIntervalMs:60000}")
+    public void backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            return;
+        }
+        rankLegacyAnswers()
+                .then(Mono.defer(this::queueUnscored))
+                .doFinally(signal -> backfilling.set(false))
+                .subscribe(
+                        queued -> {
+                            if (queued > 0) {
+                                log.info("Scoring backfill queued {} answers", queued);
+                            }
+                        },
+                        error -> log.error("Scoring backfill failed", error)
+                );
+    }
+
+    // Answers written before rankScore existed; one update, so it runs whether or not scoring is enabled
+    private Mono<Void> rankLegacyAnswers() {
+        return reactiveMongoTemplate.updateMulti(Query.query(where("rankScore").is(null)),
+                        AggregationUpdate.from(List.of(AnswerRanking.recompute())), Answer.class)
+                .doOnNext(result -> {
+                    if (result.getModifiedCount() > 0) {
+                        log.info("Set rankScore on {} answers", result.getModifiedCount());
+                    }
+                })
+                .then();
+    }
+
+    private Mono<Integer> queueUnscored() {
+        int room = Math.min(backfillBatch, queue.remainingCapacity() - batchSize);
+        if (!enabled || room <= 0) {
+            return Mono.just(0);
+        }
+        Query query = Query.query(where("qualityScore").is(null))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(room);
+        String after = backfillAfter;
+        if (after != null) {
+            query.addCriteria(where("_id").gt(after));
+        }
+        query.fields().include("_id");
+
+        return reactiveMongoTemplate.find(query, Answer.class)
+                .map(Answer::getId)
+                .collectList()
+                .map(ids -> {
+                    // A short page ends the pass; the next one starts over and retries what is still unscored
+                    backfillAfter = ids.size() < room ? null : ids.get(ids.size() - 1);
+                    int queued = 0;
+                    for (String id : ids) {
+                        if (submit(id)) {
+                            queued++;
+                        }
+                    }
+                    backfilledCount.addAndGet(queued);
+                    return queued;
+                });
+    }
+
+    // Start batches while there is work and a free slot
+    private void drain() {
+        while (!queue.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxConcurrentBatches) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            List<String> batch = new ArrayList<>(batchSize);
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            scoreBatch(batch)
+                    .doFinally(signal -> {
+                        inFlight.decrementAndGet();
+                        if (queue.size() >= batchSize) {
+                            drain();
+                        }
+                    })
+                    .subscribe();
+        }
+    }
+
+    private Mono<Void> scoreBatch(List<String> answerIds) {
+        batchCount.incrementAndGet();
+        return answerRepository.findAllById(answerIds)
+                .flatMap(answer -> questionCache.get(answer.getQuestionId())
+                        .map(question -> new Pending(answer, request(question, answer))))
+                .collectList()
+                .flatMap(pending -> {
+                    List<Pending> misses = new ArrayList<>();
+                    for (Pending item : pending) {
+                        AnswerQualityModel.Result cached = scoreCache.getIfPresent(item.contentHash());
+                        if (cached != null) {
+                            cacheHitCount.incrementAndGet();
+                            item.result = cached;
+                        } else {
+                            misses.add(item);
+                        }
+                    }
+                    return callModel(misses).then(Mono.defer(() -> write(pending)));
+                })
+                .onErrorResume(error -> {
+                    failedCount.addAndGet(answerIds.size());
+                    log.error("Failed to score answers: batch={}", answerIds.size(), error);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> callModel(List<Pending> misses) {
+        if (misses.isEmpty()) {
+            return Mono.empty();
+        }
+        List<AnswerQualityModel.Request> requests = misses.stream().map(Pending::request).toList();
+        return model.score(requests)
+                .timeout(modelTimeout)
+                .doOnNext(results -> {
+                    if (results.size() != misses.size()) {
+                        throw new IllegalStateException("Model returned " + results.size()
+                                + " results for " + misses.size() + " answers");
+                    }
+                    for (int i = 0; i < misses.size(); i++) {
+                        AnswerQualityModel.Result result = results.get(i);
+                        Pending item = misses.get(i);
+                        item.result = new AnswerQualityModel.Result(
+                                Math.max(0, Math.min(10, result.score())), result.feedback());
+                        scoreCache.put(item.contentHash(), item.result);
+                    }
+                })
+                .then();
+    }
+
+    private Mono<Void> write(List<Pending> pending) {
+        Instant now = Instant.now();
+        List<Pending> scored = pending.stream().filter(item -> item.result != null).toList();
+        Set<String> questionIds = new HashSet<>();
+        scored.forEach(item -> questionIds.add(item.answer().getQuestionId()));
+        return Flux.fromIterable(scored)
+                .concatMap(item -> {
+                    // $literal: model feedback must never be read as a field path
+                    AggregationOperation setScore = context -> new Document("$set", new Document()
+                            .append("qualityScore", item.result.score())
+                            .append("qualityFeedback", new Document("$literal", item.result.feedback()))
+                            .append("qualityScoredAt", Date.from(now)));
+                    AggregationUpdate update = AggregationUpdate.from(List.of(setScore, AnswerRanking.recompute()));
+                    return reactiveMongoTemplate.updateFirst(
+                            Query.query(where("_id").is(item.answer().getId())), update, Answer.class);
+                })
+                .doOnNext(result -> scoredCount.addAndGet(result.getModifiedCount()))
+                .thenMany(Flux.fromIterable(questionIds))
+                .flatMap(questionStatsService::answerScored)
+                .then();
+    }
+
+    private AnswerQualityModel.Request request(Question question, Answer answer) {
+        return new AnswerQualityModel.Request(answer.getId(), question.getTitle(), question.getBody(),
+                answer.getBody());
+    }
+
+    private String contentHash(AnswerQualityModel.Request request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{model.name(), request.questionTitle(), request.questionBody(),
+                    request.answerBody()}) {
+                byte[] bytes = (part != null ? part : "").getBytes(StandardCharsets.UTF_8);
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public String statsName() {
+        return "answer-scoring";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("model", model.name());
+        stats.put("queued", queuedCount.get());
+        stats.put("dropped", droppedCount.get());
+        stats.put("queueSize", queue.size());
+        stats.put("inFlightBatches", inFlight.get());
+        stats.put("batches", batchCount.get());
+        stats.put("scored", scoredCount.get());
+        stats.put("cacheHits", cacheHitCount.get());
+        stats.put("cacheSize", scoreCache.estimatedSize());
+        stats.put("failed", failedCount.get());
+        stats.put("backfilled", backfilledCount.get());
+        stats.put("backfilling", backfilling.get());
+        return stats;
+    }
+
+    private final class Pending {
+
+        private final Answer answer;
+        private final AnswerQualityModel.Request request;
+        private final String contentHash;
+        private AnswerQualityModel.Result result;
+
+        private Pending(Answer answer, AnswerQualityModel.Request request) {
+            this.answer = answer;
+            this.request = request;
+            this.contentHash = AnswerScoringPipeline.this.contentHash(request);
+        }
+
+        private Answer answer() {
+            return answer;
+        }
+
+        private AnswerQualityModel.Request request() {
+            return request;
+        }
+
+        private String contentHash() {
+            return contentHash;
+        }
+    }
+}
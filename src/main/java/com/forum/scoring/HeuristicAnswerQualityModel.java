@@ -0,0 +1,72 @@
+package com.forum.scoring;
+
+import com.forum.search.SearchTokenizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deterministic local stand-in for an LLM scorer, used when
+ * forum.scoring.model=heuristic (the default). Same input, same score, no
+ * network, so the pipeline can run and be tested offline.
+ *
+ * Points out of 10: up to 4 for length (log scale), up to 3 for overlap with
+ * the question's terms, 2 for a code block and 1 for a link.
+ */
+@Component
+@ConditionalOnProperty(name = "forum.scoring.model", havingValue = "heuristic", matchIfMissing = true)
+public class HeuristicAnswerQualityModel implements AnswerQualityModel {
+
+    @Override
+    public String name() {
+        return "heuristic-v1";
+    }
+
+    @Override
+    public Mono<List<Result>> score(List<Request> batch) {
+        return Mono.fromCallable(() -> {
+            List<Result> results = new ArrayList<>(batch.size());
+            for (Request request : batch) {
+                results.add(score(request));
+            }
+            return results;
+        });
+    }
+
+    private Result score(Request request) {
+        String body = request.answerBody() != null ? request.answerBody() : "";
+        List<String> feedback = new ArrayList<>();
+
+        List<String> answerTerms = SearchTokenizer.tokenize(body);
+        double length = Math.min(4, Math.log1p(answerTerms.size()) / Math.log1p(200) * 4);
+        if (answerTerms.size() < 10) {
+            feedback.add("very short");
+        }
+
+        Set<String> questionTerms = new HashSet<>(SearchTokenizer.tokenize(request.questionTitle()));
+        questionTerms.addAll(SearchTokenizer.tokenize(request.questionBody()));
+        long shared = new HashSet<>(answerTerms).stream().filter(questionTerms::contains).count();
+        double relevance = questionTerms.isEmpty() ? 0 : Math.min(3, 3.0 * shared / Math.min(questionTerms.size(), 10));
+        if (relevance < 1) {
+            feedback.add("little overlap with the question");
+        }
+
+        double code = body.contains("```") || body.contains("\n    ") ? 2 : 0;
+        if (code > 0) {
+            feedback.add("includes code");
+        }
+        double link = body.contains("http://") || body.contains("https://") ? 1 : 0;
+        if (link > 0) {
+            feedback.add("cites a link");
+        }
+
+        // Half-point steps keep the output stable across float rounding
+        double score = Math.round(Math.min(10, length + relevance + code + link) * 2) / 2.0;
+        return new Result(score, feedback.isEmpty() ? "reasonable answer" : String.join(", ", feedback));
+    }
+}
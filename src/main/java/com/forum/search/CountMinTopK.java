@@ -0,0 +1,144 @@
+package com.forum.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Count-min sketch with a bounded set of heavy hitters.
+ *
+ * The sketch is depth rows of width counters; an item's estimate is the
+ * minimum of its counters, which never undercounts. The k items with the
+ * largest estimates seen so far are kept by name in a min-heap indexed by
+ * item; when a new item's estimate beats the heap root, it takes that slot.
+ * An update is O(depth + log k). Memory is fixed by depth, width and k
+ * regardless of how many distinct items arrive.
+ *
+ * Not thread-safe; QueryAnalytics serializes access.
+ */
+final class CountMinTopK {
+
+    private final int[][] counters;
+    private final int width;
+    private final int capacity;
+    // Min-heap of tracked items by estimate, with each item's heap slot
+    private final String[] heapItems;
+    private final long[] heapCounts;
+    private final Map<String, Integer> slots;
+    private int size;
+    private long total;
+
+    CountMinTopK(int depth, int width, int capacity) {
+        this.counters = new int[depth][width];
+        this.width = width;
+        this.capacity = capacity;
+        this.heapItems = new String[capacity];
+        this.heapCounts = new long[capacity];
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    void add(String item) {
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            int column = Math.floorMod(h1 + row * h2, width);
+            int value = ++counters[row][column];
+            estimate = Math.min(estimate, value);
+        }
+        total++;
+
+        Integer slot = slots.get(item);
+        if (slot != null) {
+            // Estimates only grow, so a tracked item can only move away from the root
+            heapCounts[slot] = estimate;
+            siftDown(slot);
+        } else if (size < capacity) {
+            place(size, item, estimate);
+            siftUp(size++);
+        } else if (capacity > 0 && estimate > heapCounts[0]) {
+            slots.remove(heapItems[0]);
+            place(0, item, estimate);
+            siftDown(0);
+        }
+    }
+
+    long estimate(String item) {
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            estimate = Math.min(estimate, counters[row][Math.floorMod(h1 + row * h2, width)]);
+        }
+        return estimate;
+    }
+
+    List<Map.Entry<String, Long>> top() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(Map.entry(heapItems[i], heapCounts[i]));
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return entries;
+    }
+
+    long total() {
+        return total;
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (heapCounts[parent] <= heapCounts[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int smallest = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && heapCounts[left] < heapCounts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heapCounts[right] < heapCounts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == slot) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String item = heapItems[a];
+        long count = heapCounts[a];
+        place(a, heapItems[b], heapCounts[b]);
+        place(b, item, count);
+    }
+
+    private void place(int slot, String item, long count) {
+        heapItems[slot] = item;
+        heapCounts[slot] = count;
+        slots.put(item, slot);
+    }
+
+    // 64-bit FNV-1a over the chars; the halves give the two base hashes
+    private static long hash(String item) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < item.length(); i++) {
+            hash ^= item.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,447 @@
+package com.forum.search;
+
+import com.forum.index.QuestionChangeListener;
+import com.forum.model.Question;
+import com.forum.stats.StatsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant search over question titles and tags.
+ *
+ * Every distinct title/tag term gets an int id, and each character trigram of
+ * the term (padded with a boundary marker) points at the ids containing it. A
+ * misspelled query term is matched by counting trigram overlap against the
+ * vocabulary, and the candidates that share enough trigrams are verified with
+ * an edit distance bounded by maxEdits (transpositions count as one edit, so
+ * "kafak" matches "kafka"). Documents are scored from the matched terms'
+ * postings the same way QuestionSearchIndex stores them: int doc ordinals,
+ * deleted ordinals marked in a BitSet and compacted later.
+ *
+ * Terms are never removed from the vocabulary; a term whose document frequency
+ * drops to zero is skipped, and the vocabulary is bounded by distinct words.
+ */
+@Component
+public class FuzzySearchIndex implements QuestionChangeListener, StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(FuzzySearchIndex.class);
+
+    private static final char BOUNDARY = '\u0001';
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MAX_EXPANSIONS = 3;
+    private static final int MIN_DELETED_FOR_COMPACTION = 1000;
+    // Check the deadline once per this many candidate terms
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock: vocabulary
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private int[] termDocFreq = new int[1024];
+    private final Map<String, IntList> trigramTerms = new HashMap<>();
+
+    // Guarded by lock: documents
+    private final Map<Integer, IntPostingList> termDocs = new HashMap<>();
+    private final Map<String, Integer> docByQuestionId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private String[] questionIds = new String[1024];
+    private int[][] docTerms = new int[1024][];
+    private int maxDoc;
+    private int liveDocs;
+
+    private volatile boolean ready;
+
+    private final AtomicLong searches = new AtomicLong(0);
+    private final AtomicLong deadlineHits = new AtomicLong(0);
+
+    public FuzzySearchIndex(@Value("${forum.search.fuzzy.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // --- QuestionChangeListener ---
+
+    @Override
+    public void onQuestionLoaded(Question question) {
+        if (enabled) {
+            index(question);
+        }
+    }
+
+    @Override
+    public void onLoadComplete() {
+        if (enabled) {
+            ready = true;
+            log.info("Fuzzy search index ready: docs={}, terms={}, trigrams={}",
+                    liveDocs, terms.size(), trigramTerms.size());
+        }
+    }
+
+    @Override
+    public void onQuestionSaved(Question previous, Question current) {
+        if (enabled) {
+            index(current);
+        }
+    }
+
+    @Override
+    public void onQuestionDeleted(Question question) {
+        if (enabled) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(question.getId());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // --- Indexing ---
+
+    private void index(Question question) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        for (String term : SearchTokenizer.tokenize(question.getTitle())) {
+            termFreqs.merge(term, QuestionSearchIndex.TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : SearchTokenizer.tokenize(question.getTags())) {
+            termFreqs.merge(term, QuestionSearchIndex.TAG_WEIGHT, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(question.getId());
+            if (termFreqs.isEmpty()) {
+                return;
+            }
+
+            int doc = maxDoc++;
+            ensureDocCapacity(doc + 1);
+            int[] ids = new int[termFreqs.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+                int termId = termId(entry.getKey());
+                ids[i++] = termId;
+                termDocFreq[termId]++;
+                termDocs.computeIfAbsent(termId, id -> new IntPostingList()).add(doc, entry.getValue());
+            }
+            questionIds[doc] = question.getId();
+            docTerms[doc] = ids;
+            docByQuestionId.put(question.getId(), doc);
+            liveDocs++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private int termId(String term) {
+        Integer existing = termIds.get(term);
+        if (existing != null) {
+            return existing;
+        }
+        int id = terms.size();
+        terms.add(term);
+        termIds.put(term, id);
+        if (id >= termDocFreq.length) {
+            termDocFreq = Arrays.copyOf(termDocFreq, termDocFreq.length * 2);
+        }
+        for (String trigram : trigrams(term)) {
+            trigramTerms.computeIfAbsent(trigram, t -> new IntList()).add(id);
+        }
+        return id;
+    }
+
+    private void removeLocked(String questionId) {
+        Integer doc = docByQuestionId.remove(questionId);
+        if (doc == null) {
+            return;
+        }
+        for (int termId : docTerms[doc]) {
+            termDocFreq[termId]--;
+        }
+        docTerms[doc] = null;
+        deleted.set(doc);
+        liveDocs--;
+
+        int deletedCount = deleted.cardinality();
+        if (deletedCount >= MIN_DELETED_FOR_COMPACTION && deletedCount * 4 >= maxDoc) {
+            compactLocked();
+        }
+    }
+
+    private void compactLocked() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (!deleted.get(doc)) {
+                remap[doc] = next;
+                questionIds[next] = questionIds[doc];
+                docTerms[next] = docTerms[doc];
+                docByQuestionId.put(questionIds[next], next);
+                next++;
+            }
+        }
+
+        termDocs.values().removeIf(list -> {
+            list.compact(deleted, remap);
+            return list.size() == 0;
+        });
+
+        Arrays.fill(questionIds, next, maxDoc, null);
+        Arrays.fill(docTerms, next, maxDoc, null);
+        log.debug("Fuzzy search index compacted: docs {} -> {}", maxDoc, next);
+        maxDoc = next;
+        deleted.clear();
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity > questionIds.length) {
+            int newCapacity = Math.max(capacity, questionIds.length * 2);
+            questionIds = Arrays.copyOf(questionIds, newCapacity);
+            docTerms = Arrays.copyOf(docTerms, newCapacity);
+        }
+    }
+
+    // --- Query ---
+
+    /**
+     * Question ids of the best k documents for the query, allowing each term to
+     * be misspelled. Stops expanding terms once deadlineNanos (System.nanoTime)
+     * has passed and ranks whatever was matched so far.
+     */
+    public List<String> search(String query, int k, long deadlineNanos) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (!isReady() || queryTerms.isEmpty() || k <= 0) {
+            return List.of();
+        }
+        searches.incrementAndGet();
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return List.of();
+            }
+
+            float[] scores = new float[maxDoc];
+            BitSet touched = new BitSet(maxDoc);
+            int[] overlap = new int[terms.size()];
+
+            for (String queryTerm : queryTerms) {
+                if (System.nanoTime() > deadlineNanos) {
+                    deadlineHits.incrementAndGet();
+                    break;
+                }
+                for (Match match : expand(queryTerm, overlap, deadlineNanos)) {
+                    IntPostingList list = termDocs.get(match.termId());
+                    int df = Math.min(termDocFreq[match.termId()], liveDocs);
+                    float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                    float similarity = 1f / (1 + match.distance());
+                    for (int i = 0; i < list.size(); i++) {
+                        int doc = list.doc(i);
+                        if (!deleted.get(doc)) {
+                            scores[doc] += idf * similarity * list.freq(i);
+                            touched.set(doc);
+                        }
+                    }
+                }
+            }
+
+            return topK(scores, touched, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The exact term if indexed, otherwise the closest vocabulary terms within maxEdits
+    private List<Match> expand(String queryTerm, int[] overlap, long deadlineNanos) {
+        Integer exact = termIds.get(queryTerm);
+        if (exact != null && termDocFreq[exact] > 0) {
+            return List.of(new Match(exact, 0, termDocFreq[exact]));
+        }
+        int maxEdits = maxEdits(queryTerm.length());
+        if (maxEdits == 0) {
+            return List.of();
+        }
+
+        // Count shared trigrams per term; touched keeps the ids to reset afterwards
+        List<String> grams = trigrams(queryTerm);
+        IntList touched = new IntList();
+        for (String gram : grams) {
+            IntList ids = trigramTerms.get(gram);
+            if (ids == null) {
+                continue;
+            }
+            for (int i = 0; i < ids.size; i++) {
+                int id = ids.values[i];
+                if (overlap[id]++ == 0) {
+                    touched.add(id);
+                }
+            }
+        }
+
+        // Each edit changes at most three trigrams
+        int minOverlap = Math.max(1, grams.size() - 3 * maxEdits);
+        PriorityQueue<Match> best = new PriorityQueue<>(MAX_EXPANSIONS + 1, Match.WORST_FIRST);
+        for (int i = 0; i < touched.size; i++) {
+            int id = touched.values[i];
+            int shared = overlap[id];
+            overlap[id] = 0;
+            if (shared < minOverlap || termDocFreq[id] == 0) {
+                continue;
+            }
+            if (i % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+                deadlineHits.incrementAndGet();
+                for (int j = i + 1; j < touched.size; j++) {
+                    overlap[touched.values[j]] = 0;
+                }
+                break;
+            }
+            String candidate = terms.get(id);
+            if (Math.abs(candidate.length() - queryTerm.length()) > maxEdits) {
+                continue;
+            }
+            int distance = boundedDistance(queryTerm, candidate, maxEdits);
+            if (distance <= maxEdits) {
+                best.add(new Match(id, distance, termDocFreq[id]));
+                if (best.size() > MAX_EXPANSIONS) {
+                    best.poll();
+                }
+            }
+        }
+        return new ArrayList<>(best);
+    }
+
+    static int maxEdits(int length) {
+        if (length < MIN_FUZZY_LENGTH) {
+            return 0;
+        }
+        return length < 6 ? 1 : 2;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent
+     * transpositions), giving up with max + 1 once every cell in a row exceeds max.
+     */
+    static int boundedDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int[] before = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, before[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = before;
+            before = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    static List<String> trigrams(String term) {
+        String padded = BOUNDARY + term + BOUNDARY;
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private List<String> topK(float[] scores, BitSet touched, int k) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1,
+                (x, y) -> Float.compare(scores[x], scores[y]));
+        for (int doc = touched.nextSetBit(0); doc >= 0; doc = touched.nextSetBit(doc + 1)) {
+            heap.add(doc);
+            if (heap.size() > k) {
+                heap.poll();
+            }
+        }
+        String[] ranked = new String[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = questionIds[heap.poll()];
+        }
+        return Arrays.asList(ranked);
+    }
+
+    @Override
+    public String statsName() {
+        return "search-fuzzy";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("ready", ready);
+            stats.put("documents", liveDocs);
+            stats.put("terms", terms.size());
+            stats.put("trigrams", trigramTerms.size());
+            stats.put("searches", searches.get());
+            stats.put("deadlineHits", deadlineHits.get());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Match(int termId, int distance, int docFreq) {
+        // Heap order: the largest distance, then the rarest term, is evicted first
+        private static final Comparator<Match> WORST_FIRST = Comparator
+                .comparingInt(Match::distance).reversed()
+                .thenComparingInt(Match::docFreq);
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = value;
+        }
+    }
+}
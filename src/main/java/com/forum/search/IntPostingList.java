@@ -0,0 +1,62 @@
+package com.forum.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Growable posting list of (doc ordinal, weighted term frequency) pairs
+ * stored in two parallel int arrays.
+ */
+final class IntPostingList {
+
+    private int[] docs;
+    private int[] freqs;
+    private int size;
+
+    IntPostingList() {
+        this.docs = new int[4];
+        this.freqs = new int[4];
+    }
+
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            int capacity = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, capacity);
+            freqs = Arrays.copyOf(freqs, capacity);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int doc(int i) {
+        return docs[i];
+    }
+
+    int freq(int i) {
+        return freqs[i];
+    }
+
+    /**
+     * Drop deleted docs and renumber the rest through the remap table.
+     */
+    void compact(BitSet deleted, int[] remap) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!deleted.get(docs[i])) {
+                docs[kept] = remap[docs[i]];
+                freqs[kept] = freqs[i];
+                kept++;
+            }
+        }
+        size = kept;
+        if (docs.length > kept * 2 + 4) {
+            docs = Arrays.copyOf(docs, kept + 4);
+            freqs = Arrays.copyOf(freqs, kept + 4);
+        }
+    }
+}
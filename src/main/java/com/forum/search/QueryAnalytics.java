@@ -0,0 +1,152 @@
+package com.forum.search;
+
+import com.forum.model.QueryCount;
+import com.forum.stats.StatsProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming counts of search queries, in place of scanning SEARCH_PERFORMED
+ * activity logs.
+ *
+ * Time is cut into tumbling windows. Each window has one CountMinTopK for all
+ * queries and one for queries that returned no results; when a window ends it
+ * becomes the previous window and the one before it is dropped, so memory
+ * stays at four fixed-size sketches.
+ *
+ * Trending compares each heavy hitter of the current window with its estimate
+ * in the previous window.
+ */
+@Component
+public class QueryAnalytics implements StatsProvider {
+
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int depth;
+    private final int width;
+    private final int topK;
+
+    // Guarded by this
+    private long windowStart;
+    private Window current;
+    private Window previous;
+
+    public QueryAnalytics(@Value("${forum.search.analytics.enabled:true}") boolean enabled,
+                          @Value("${forum.search.analytics.window:1h}") Duration window,
+                          @Value("${forum.search.analytics.sketchDepth:4}") int depth,
+                          @Value("${forum.search.analytics.sketchWidth:2048}") int width,
+                          @Value("${forum.search.analytics.topK:100}") int topK) {
+        this.enabled = enabled;
+        this.windowMillis = window.toMillis();
+        this.depth = depth;
+        this.width = width;
+        this.topK = topK;
+        this.windowStart = System.currentTimeMillis() / windowMillis * windowMillis;
+        this.current = new Window(depth, width, topK);
+        this.previous = new Window(depth, width, topK);
+    }
+
+    public void record(String query, int resultCount) {
+        String normalized = normalize(query);
+        if (!enabled || normalized.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            rotate(System.currentTimeMillis());
+            current.queries.add(normalized);
+            if (resultCount == 0) {
+                current.zeroResults.add(normalized);
+            }
+        }
+    }
+
+    public synchronized List<QueryCount> top(int limit) {
+        rotate(System.currentTimeMillis());
+        return counts(current.queries, previous.queries, limit);
+    }
+
+    public synchronized List<QueryCount> zeroResults(int limit) {
+        rotate(System.currentTimeMillis());
+        return counts(current.zeroResults, previous.zeroResults, limit);
+    }
+
+    /**
+     * Heavy hitters of the current window ranked by growth over the previous
+     * window, (count + 1) / (previousCount + 1), ignoring one-off queries.
+     */
+    public synchronized List<QueryCount> trending(int limit) {
+        rotate(System.currentTimeMillis());
+        return counts(current.queries, previous.queries, Integer.MAX_VALUE).stream()
+                .filter(count -> count.getCount() > 1)
+                .sorted(Comparator.comparingDouble(
+                        (QueryCount count) -> (count.getCount() + 1.0) / (count.getPreviousCount() + 1.0)).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private List<QueryCount> counts(CountMinTopK window, CountMinTopK before, int limit) {
+        return window.top().stream()
+                .limit(limit)
+                .map(entry -> new QueryCount(entry.getKey(), entry.getValue(), before.estimate(entry.getKey())))
+                .toList();
+    }
+
+    // Caller holds the monitor
+    private void rotate(long now) {
+        long start = now / windowMillis * windowMillis;
+        if (start == windowStart) {
+            return;
+        }
+        // After an idle gap longer than a window, the previous window is empty too
+        previous = start - windowStart == windowMillis ? current : new Window(depth, width, topK);
+        current = new Window(depth, width, topK);
+        windowStart = start;
+    }
+
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String normalized = query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return normalized.length() > MAX_QUERY_LENGTH ? normalized.substring(0, MAX_QUERY_LENGTH) : normalized;
+    }
+
+    @Override
+    public String statsName() {
+        return "search-analytics";
+    }
+
+    @Override
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("windowStart", Instant.ofEpochMilli(windowStart));
+        stats.put("windowMs", windowMillis);
+        stats.put("queries", current.queries.total());
+        stats.put("zeroResultQueries", current.zeroResults.total());
+        stats.put("previousQueries", previous.queries.total());
+        stats.put("sketchBytesPerWindow", 2L * depth * width * Integer.BYTES);
+        return stats;
+    }
+
+    private static final class Window {
+
+        private final CountMinTopK queries;
+        private final CountMinTopK zeroResults;
+
+        private Window(int depth, int width, int topK) {
+            this.queries = new CountMinTopK(depth, width, topK);
+            this.zeroResults = new CountMinTopK(depth, width, topK);
+        }
+    }
+}
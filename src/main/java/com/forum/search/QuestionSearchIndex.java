@@ -0,0 +1,331 @@
+package com.forum.search;
+
+import com.forum.index.QuestionChangeListener;
+import com.forum.model.Question;
+import com.forum.stats.StatsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over question title, body and tags, ranked with BM25.
+ *
+ * Term frequencies are weighted per field like the @TextIndexed annotations on
+ * Question (title 3, body 1, tags 2). Each document gets an int ordinal and the
+ * posting lists hold ordinals and weighted frequencies in primitive arrays.
+ * Updates append a new ordinal and mark the old one deleted; deleted ordinals
+ * are compacted away once they make up a quarter of the index.
+ */
+@Component
+public class QuestionSearchIndex implements QuestionChangeListener, StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionSearchIndex.class);
+
+    public static final int TITLE_WEIGHT = 3;
+    public static final int BODY_WEIGHT = 1;
+    public static final int TAG_WEIGHT = 2;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_DELETED_FOR_COMPACTION = 1000;
+
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<String, IntPostingList> postings = new HashMap<>();
+    private final Map<String, Integer> docByQuestionId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private String[] questionIds = new String[1024];
+    private int[] docLengths = new int[1024];
+    private int maxDoc;
+    private int liveDocs;
+    private long totalLength;
+
+    private volatile boolean ready;
+
+    public QuestionSearchIndex(@Value("${forum.search.engine:mongo}") String engine) {
+        this.enabled = "index".equalsIgnoreCase(engine);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // --- QuestionChangeListener ---
+
+    @Override
+    public void onQuestionLoaded(Question question) {
+        if (enabled) {
+            index(question);
+        }
+    }
+
+    @Override
+    public void onLoadComplete() {
+        if (enabled) {
+            ready = true;
+            log.info("Search index ready: docs={}, terms={}", liveDocs, postings.size());
+        }
+    }
+
+    @Override
+    public void onQuestionSaved(Question previous, Question current) {
+        if (enabled) {
+            index(current);
+        }
+    }
+
+    @Override
+    public void onQuestionDeleted(Question question) {
+        if (enabled) {
+            remove(question.getId());
+        }
+    }
+
+    // --- Indexing ---
+
+    public void index(Question question) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        addTerms(termFreqs, SearchTokenizer.tokenize(question.getTitle()), TITLE_WEIGHT);
+        addTerms(termFreqs, SearchTokenizer.tokenize(question.getBody()), BODY_WEIGHT);
+        addTerms(termFreqs, SearchTokenizer.tokenize(question.getTags()), TAG_WEIGHT);
+
+        int length = 0;
+        for (int freq : termFreqs.values()) {
+            length += freq;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(question.getId());
+
+            int doc = maxDoc++;
+            ensureCapacity(doc + 1);
+            questionIds[doc] = question.getId();
+            docLengths[doc] = length;
+            docByQuestionId.put(question.getId(), doc);
+            liveDocs++;
+            totalLength += length;
+
+            for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new IntPostingList())
+                        .add(doc, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String questionId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(questionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(String questionId) {
+        Integer doc = docByQuestionId.remove(questionId);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        liveDocs--;
+        totalLength -= docLengths[doc];
+
+        int deletedCount = deleted.cardinality();
+        if (deletedCount >= MIN_DELETED_FOR_COMPACTION && deletedCount * 4 >= maxDoc) {
+            compactLocked();
+        }
+    }
+
+    private void compactLocked() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (!deleted.get(doc)) {
+                remap[doc] = next;
+                questionIds[next] = questionIds[doc];
+                docLengths[next] = docLengths[doc];
+                docByQuestionId.put(questionIds[next], next);
+                next++;
+            }
+        }
+
+        postings.values().removeIf(list -> {
+            list.compact(deleted, remap);
+            return list.size() == 0;
+        });
+
+        Arrays.fill(questionIds, next, maxDoc, null);
+        log.debug("Search index compacted: docs {} -> {}", maxDoc, next);
+        maxDoc = next;
+        deleted.clear();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > questionIds.length) {
+            int newCapacity = Math.max(capacity, questionIds.length * 2);
+            questionIds = Arrays.copyOf(questionIds, newCapacity);
+            docLengths = Arrays.copyOf(docLengths, newCapacity);
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> termFreqs, List<String> terms, int weight) {
+        for (String term : terms) {
+            termFreqs.merge(term, weight, Integer::sum);
+        }
+    }
+
+    // --- Query ---
+
+    /**
+     * BM25 over the query terms, returning question ids of the top k documents
+     * in descending score order.
+     */
+    public List<String> search(String query, int k) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (terms.isEmpty() || k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return List.of();
+            }
+
+            float avgLength = (float) totalLength / liveDocs;
+            float[] scores = new float[maxDoc];
+            BitSet touched = new BitSet(maxDoc);
+
+            for (String term : terms) {
+                IntPostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                // Document frequency includes not-yet-compacted deletes; close enough for ranking
+                int df = Math.min(list.size(), liveDocs);
+                float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+
+                for (int i = 0; i < list.size(); i++) {
+                    int doc = list.doc(i);
+                    if (deleted.get(doc)) {
+                        continue;
+                    }
+                    float tf = list.freq(i);
+                    float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                    scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                    touched.set(doc);
+                }
+            }
+
+            return topK(scores, touched, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Min-heap of the best k docs seen so far, kept in two primitive arrays
+    private List<String> topK(float[] scores, BitSet touched, int k) {
+        int[] heapDocs = new int[k];
+        float[] heapScores = new float[k];
+        int heapSize = 0;
+
+        for (int doc = touched.nextSetBit(0); doc >= 0; doc = touched.nextSetBit(doc + 1)) {
+            float score = scores[doc];
+            if (heapSize < k) {
+                heapDocs[heapSize] = doc;
+                heapScores[heapSize] = score;
+                siftUp(heapDocs, heapScores, heapSize++);
+            } else if (score > heapScores[0]) {
+                heapDocs[0] = doc;
+                heapScores[0] = score;
+                siftDown(heapDocs, heapScores, heapSize);
+            }
+        }
+
+        String[] ranked = new String[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ranked[i] = questionIds[heapDocs[0]];
+            heapDocs[0] = heapDocs[i];
+            heapScores[0] = heapScores[i];
+            siftDown(heapDocs, heapScores, i);
+        }
+        return Arrays.asList(ranked);
+    }
+
+    private static void siftUp(int[] docs, float[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[i] >= scores[parent]) {
+                break;
+            }
+            swap(docs, scores, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] docs, float[] scores, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[i] <= scores[smallest]) {
+                break;
+            }
+            swap(docs, scores, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] docs, float[] scores, int a, int b) {
+        int doc = docs[a];
+        docs[a] = docs[b];
+        docs[b] = doc;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+
+    @Override
+    public String statsName() {
+        return "search-index";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("ready", ready);
+            stats.put("documents", liveDocs);
+            stats.put("terms", postings.size());
+            stats.put("deletedOrdinals", deleted.cardinality());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
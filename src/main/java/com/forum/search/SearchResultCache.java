@@ -0,0 +1,187 @@
+package com.forum.search;
+
+import com.forum.index.QuestionChangeListener;
+import com.forum.model.Question;
+import com.forum.stats.StatsProvider;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches ranked question id lists per normalized query.
+ *
+ * Alongside the cache a reverse map links every query term to the cached
+ * queries containing it. When a question is written, the terms of its old and
+ * new title, body and tags are looked up there and only the overlapping
+ * queries are dropped. Queries without indexable terms (only stop words) are
+ * dropped on every write. Mongo's $text stemming can match words that differ
+ * from the query term ("running" for "run"); those results are only refreshed
+ * by the TTL, so keep it short.
+ *
+ * Writes on other instances arrive through QuestionCacheInvalidationListener.
+ * Their events do not carry the old text or the tags, so each one clears the
+ * whole cache; with many remote writes the hit rate drops accordingly.
+ *
+ * Concurrent misses for the same query share one load. A load that fails or
+ * finds nothing is not cached and its terms are unregistered.
+ */
+@Component
+public class SearchResultCache implements QuestionChangeListener, StatsProvider {
+
+    private static final String ANY_TERM = "";
+
+    private final AsyncCache<String, List<String>> cache;
+    private final ConcurrentHashMap<String, Set<String>> queriesByTerm = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> termsByQuery = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong(0);
+    private final AtomicLong remoteInvalidations = new AtomicLong(0);
+
+    public SearchResultCache(@Value("${forum.search.cache.maxQueries:10000}") long maxQueries,
+                             @Value("${forum.search.cache.ttl:60s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxQueries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .removalListener((String key, List<String> ids, RemovalCause cause) -> onRemoval(key))
+                .buildAsync();
+    }
+
+    private void onRemoval(String key) {
+        // The query may have been reloaded since; keep its terms then
+        if (key != null && cache.getIfPresent(key) == null) {
+            unregister(key);
+        }
+    }
+
+    /**
+     * Cache key for a query: engine plus the lower-cased, whitespace-collapsed text.
+     */
+    public static String normalize(String engine, String query) {
+        String text = query == null ? "" : query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return engine + ":" + text;
+    }
+
+    public Mono<List<String>> get(String key, String query, Supplier<Mono<List<String>>> loader) {
+        // Load on subscribe; a cancelled caller must not cancel the search others are waiting on
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> {
+            register(k, query);
+            return loader.get().toFuture()
+                    // Caffeine drops the failed or empty entry; drop its terms as well
+                    .whenComplete((ids, error) -> {
+                        if (error != null || ids == null) {
+                            onRemoval(k);
+                        }
+                    });
+        }), true);
+    }
+
+    private void register(String key, String query) {
+        Set<String> terms = new HashSet<>(SearchTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            terms.add(ANY_TERM);
+        }
+        termsByQuery.put(key, terms);
+        for (String term : terms) {
+            queriesByTerm.compute(term, (t, keys) -> {
+                Set<String> queries = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                queries.add(key);
+                return queries;
+            });
+        }
+    }
+
+    private void unregister(String key) {
+        Set<String> terms = termsByQuery.remove(key);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            queriesByTerm.computeIfPresent(term, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    // --- QuestionChangeListener ---
+
+    @Override
+    public void onQuestionSaved(Question previous, Question current) {
+        Set<String> terms = terms(current);
+        if (previous != null) {
+            terms.addAll(terms(previous));
+        }
+        invalidate(terms);
+    }
+
+    @Override
+    public void onQuestionDeleted(Question question) {
+        invalidate(terms(question));
+    }
+
+    private static Set<String> terms(Question question) {
+        Set<String> terms = new HashSet<>(SearchTokenizer.tokenize(question.getTitle()));
+        terms.addAll(SearchTokenizer.tokenize(question.getBody()));
+        terms.addAll(SearchTokenizer.tokenize(question.getTags()));
+        return terms;
+    }
+
+    private void invalidate(Set<String> terms) {
+        terms.add(ANY_TERM);
+        Set<String> keys = new HashSet<>();
+        for (String term : terms) {
+            Set<String> queries = queriesByTerm.get(term);
+            if (queries != null) {
+                keys.addAll(queries);
+            }
+        }
+        if (!keys.isEmpty()) {
+            cache.synchronous().invalidateAll(keys);
+            invalidations.addAndGet(keys.size());
+        }
+    }
+
+    /**
+     * Drop every cached query, for a question written on another instance.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+        remoteInvalidations.incrementAndGet();
+    }
+
+    @Override
+    public String statsName() {
+        return "search-cache";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        CacheStats cacheStats = cache.synchronous().stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queries", cache.synchronous().estimatedSize());
+        stats.put("indexedTerms", queriesByTerm.size());
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("invalidations", invalidations.get());
+        stats.put("remoteInvalidations", remoteInvalidations.get());
+        stats.put("evictions", cacheStats.evictionCount());
+        return stats;
+    }
+}
@@ -0,0 +1,61 @@
+package com.forum.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into lower-case terms for the in-memory indexes.
+ * Letters and digits form terms; everything else is a separator.
+ */
+public final class SearchTokenizer {
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "how",
+            "i", "if", "in", "into", "is", "it", "its", "of", "on", "or", "that", "the",
+            "their", "then", "there", "these", "this", "to", "was", "what", "when", "where",
+            "which", "who", "why", "will", "with", "you", "your"
+    );
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean termChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                addTerm(terms, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    public static List<String> tokenize(List<String> values) {
+        List<String> terms = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                terms.addAll(tokenize(value));
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String term) {
+        if (term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.forum.search;
+
+import com.forum.event.ForumEvent;
+import com.forum.index.QuestionChangeListener;
+import com.forum.model.Question;
+import com.forum.model.Suggestion;
+import com.forum.stats.StatsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Type-ahead over question titles and tags, backed by a weighted radix trie.
+ *
+ * A title is indexed from its start and from the start of each of its first
+ * MAX_WORD_STARTS words, so "boot" finds "How to configure Spring Boot".
+ * Title weight reflects the question's popularity (votes and answers) and is
+ * bumped by answer events; tag weight is the number of questions using it.
+ *
+ * The tags each question was last indexed with are kept, and every change is
+ * applied as a diff against them. Indexing the same question twice, as when
+ * a question saved during the startup load is also loaded, leaves the tag
+ * counts unchanged.
+ */
+@Component
+public class SuggestIndex implements QuestionChangeListener, StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndex.class);
+
+    private static final int MAX_WORD_STARTS = 6;
+    private static final int MIN_KEY_LENGTH = 2;
+    private static final String TITLE = "title";
+    private static final String TAG = "tag";
+
+    private final boolean enabled;
+    private final int maxPrefixLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final WeightedPrefixTrie trie = new WeightedPrefixTrie();
+    private final Map<String, IndexedTitle> titles = new HashMap<>();
+    private final Map<String, IndexedTag> tags = new HashMap<>();
+    private final Map<String, Set<String>> tagsByQuestion = new HashMap<>();
+
+    public SuggestIndex(@Value("${forum.suggest.enabled:true}") boolean enabled,
+                        @Value("${forum.suggest.maxPrefixLength:64}") int maxPrefixLength) {
+        this.enabled = enabled;
+        this.maxPrefixLength = maxPrefixLength;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (!enabled || key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (key.length() > maxPrefixLength) {
+            key = key.substring(0, maxPrefixLength);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Suggestion> suggestions = new ArrayList<>(limit);
+            for (String entryId : trie.top(key, limit)) {
+                if (entryId.startsWith("q:")) {
+                    IndexedTitle title = titles.get(entryId.substring(2));
+                    if (title != null) {
+                        suggestions.add(new Suggestion(title.text(), TITLE, title.questionId(), title.weight()));
+                    }
+                } else {
+                    IndexedTag tag = tags.get(entryId.substring(2));
+                    if (tag != null) {
+                        suggestions.add(new Suggestion(tag.text(), TAG, null, tag.count()));
+                    }
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- QuestionChangeListener ---
+
+    @Override
+    public void onQuestionLoaded(Question question) {
+        if (enabled) {
+            index(question);
+        }
+    }
+
+    @Override
+    public void onLoadComplete() {
+        if (enabled) {
+            lock.readLock().lock();
+            try {
+                log.info("Suggest index ready: titles={}, tags={}, keys={}", titles.size(), tags.size(), trie.keyCount());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void onQuestionSaved(Question previous, Question current) {
+        if (enabled) {
+            index(current);
+        }
+    }
+
+    @Override
+    public void onQuestionDeleted(Question question) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeTitle(question.getId());
+            Set<String> indexed = tagsByQuestion.remove(question.getId());
+            if (indexed != null) {
+                for (String tag : indexed) {
+                    decrementTag(tag);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onForumEvent(ForumEvent event) {
+        if (!enabled || event.getQuestionId() == null) {
+            return;
+        }
+        long delta = switch (event.getEventType()) {
+            case ANSWER_CREATED -> 2;
+            case ANSWER_VOTED -> event.getVoteDelta() != null ? event.getVoteDelta() : 0;
+            default -> 0;
+        };
+        if (delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            IndexedTitle title = titles.get(event.getQuestionId());
+            if (title != null) {
+                putTitle(title.questionId(), title.text(), Math.max(1, title.weight() + delta));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Indexing ---
+
+    private void index(Question current) {
+        Set<String> newTags = tagKeys(current);
+
+        lock.writeLock().lock();
+        try {
+            Set<String> oldTags = tagsByQuestion.getOrDefault(current.getId(), Set.of());
+            if (current.getTitle() != null && !current.getTitle().isBlank()) {
+                putTitle(current.getId(), current.getTitle().trim(), titleWeight(current));
+            } else {
+                removeTitle(current.getId());
+            }
+            for (String tag : oldTags) {
+                if (!newTags.contains(tag)) {
+                    decrementTag(tag);
+                }
+            }
+            for (String tag : newTags) {
+                if (!oldTags.contains(tag)) {
+                    incrementTag(tag);
+                }
+            }
+            if (newTags.isEmpty()) {
+                tagsByQuestion.remove(current.getId());
+            } else {
+                tagsByQuestion.put(current.getId(), newTags);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void putTitle(String questionId, String text, long weight) {
+        String entryId = "q:" + questionId;
+        IndexedTitle existing = titles.get(questionId);
+        List<String> keys = titleKeys(text);
+        if (existing != null) {
+            for (String key : existing.keys()) {
+                if (!keys.contains(key)) {
+                    trie.remove(key, entryId);
+                }
+            }
+        }
+        for (String key : keys) {
+            trie.put(key, entryId, weight);
+        }
+        titles.put(questionId, new IndexedTitle(questionId, text, weight, keys));
+    }
+
+    private void removeTitle(String questionId) {
+        IndexedTitle existing = titles.remove(questionId);
+        if (existing != null) {
+            for (String key : existing.keys()) {
+                trie.remove(key, "q:" + questionId);
+            }
+        }
+    }
+
+    private void incrementTag(String tag) {
+        IndexedTag existing = tags.get(tag);
+        long count = existing != null ? existing.count() + 1 : 1;
+        tags.put(tag, new IndexedTag(tag, count));
+        trie.put(tag, "t:" + tag, count);
+    }
+
+    private void decrementTag(String tag) {
+        IndexedTag existing = tags.get(tag);
+        if (existing == null) {
+            return;
+        }
+        if (existing.count() <= 1) {
+            tags.remove(tag);
+            trie.remove(tag, "t:" + tag);
+        } else {
+            tags.put(tag, new IndexedTag(tag, existing.count() - 1));
+            trie.put(tag, "t:" + tag, existing.count() - 1);
+        }
+    }
+
+    private static long titleWeight(Question question) {
+        return 1 + Math.max(0, question.getVotes() + question.getTotalAnswerVotes()) + 2L * question.getAnswerCount();
+    }
+
+    // The whole title plus the suffix starting at each of the first words
+    private static List<String> titleKeys(String title) {
+        String normalized = normalize(title);
+        Set<String> keys = new LinkedHashSet<>();
+        int starts = 0;
+        for (int i = 0; i < normalized.length() && starts < MAX_WORD_STARTS; i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                String key = normalized.substring(i);
+                if (key.length() >= MIN_KEY_LENGTH) {
+                    keys.add(key);
+                }
+                starts++;
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private static Set<String> tagKeys(Question question) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (question.getTags() != null) {
+            for (String tag : question.getTags()) {
+                String key = normalize(tag);
+                if (!key.isEmpty()) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    @Override
+    public String statsName() {
+        return "suggest";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("titles", titles.size());
+            stats.put("tags", tags.size());
+            stats.put("keys", trie.keyCount());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record IndexedTitle(String questionId, String text, long weight, List<String> keys) {
+    }
+
+    private record IndexedTag(String text, long count) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.forum.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Radix (path-compressed) trie mapping string keys to weighted entry ids.
+ *
+ * Every node stores the highest weight in its subtree, so a top-k lookup is a
+ * best-first walk from the prefix node: a max-heap holds subtrees ranked by
+ * that bound and entries ranked by their own weight, and the walk stops after
+ * k distinct entries, without visiting the rest of the subtree.
+ *
+ * Not thread-safe; SuggestIndex guards it with a read-write lock.
+ */
+final class WeightedPrefixTrie {
+
+    private final Node root = new Node("");
+    private int keyCount;
+
+    int keyCount() {
+        return keyCount;
+    }
+
+    void put(String key, String entryId, long weight) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        String rest = key;
+
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest);
+                node.children.put(rest.charAt(0), child);
+                node = child;
+                path.add(node);
+                break;
+            }
+            int common = commonPrefix(child.label, rest);
+            if (common < child.label.length()) {
+                // Split the edge at the divergence point
+                Node mid = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                mid.children.put(child.label.charAt(0), child);
+                mid.maxWeight = child.maxWeight;
+                node.children.put(mid.label.charAt(0), mid);
+                child = mid;
+            }
+            node = child;
+            path.add(node);
+            rest = rest.substring(common);
+        }
+
+        if (node.entries == null) {
+            node.entries = new HashMap<>(2);
+        }
+        if (node.entries.isEmpty()) {
+            keyCount++;
+        }
+        node.entries.put(entryId, weight);
+        refresh(path);
+    }
+
+    void remove(String key, String entryId) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        String rest = key;
+
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null || !rest.startsWith(child.label)) {
+                return;
+            }
+            node = child;
+            path.add(node);
+            rest = rest.substring(child.label.length());
+        }
+
+        if (node.entries == null || node.entries.remove(entryId) == null) {
+            return;
+        }
+        if (node.entries.isEmpty()) {
+            node.entries = null;
+            keyCount--;
+        }
+
+        // Drop nodes left without entries or children
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            if (current.entries != null || !current.children.isEmpty()) {
+                break;
+            }
+            path.get(i - 1).children.remove(current.label.charAt(0));
+            path.remove(i);
+        }
+        refresh(path);
+    }
+
+    /**
+     * Up to k distinct entry ids under the prefix, highest weight first.
+     */
+    List<String> top(String prefix, int k) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefix(child.label, rest);
+            if (common == rest.length()) {
+                node = child; // prefix ends on or inside this edge
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+
+        List<String> result = new ArrayList<>(k);
+        Set<String> seen = new HashSet<>();
+        PriorityQueue<Candidate> heap = new PriorityQueue<>();
+        heap.add(new Candidate(node.maxWeight, node, null));
+
+        while (!heap.isEmpty() && result.size() < k) {
+            Candidate candidate = heap.poll();
+            if (candidate.entryId() != null) {
+                if (seen.add(candidate.entryId())) {
+                    result.add(candidate.entryId());
+                }
+                continue;
+            }
+            Node current = candidate.node();
+            if (current.entries != null) {
+                current.entries.forEach((id, weight) -> heap.add(new Candidate(weight, null, id)));
+            }
+            for (Node child : current.children.values()) {
+                heap.add(new Candidate(child.maxWeight, child, null));
+            }
+        }
+        return result;
+    }
+
+    // Recompute subtree maxima bottom-up along the touched path
+    private static void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            long max = Long.MIN_VALUE;
+            if (node.entries != null) {
+                for (long weight : node.entries.values()) {
+                    max = Math.max(max, weight);
+                }
+            }
+            for (Node child : node.children.values()) {
+                max = Math.max(max, child.maxWeight);
+            }
+            node.maxWeight = max;
+        }
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int limit = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < limit && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private Map<String, Long> entries;
+        private long maxWeight = Long.MIN_VALUE;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    // Max-heap order; subtrees are expanded before entries of equal weight
+    private record Candidate(long weight, Node node, String entryId) implements Comparable<Candidate> {
+        @Override
+        public int compareTo(Candidate other) {
+            int byWeight = Long.compare(other.weight, weight);
+            if (byWeight != 0) {
+                return byWeight;
+            }
+            return Boolean.compare(node == null, other.node == null);
+        }
+    }
+}
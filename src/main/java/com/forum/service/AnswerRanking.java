@@ -0,0 +1,48 @@
+package com.forum.service;
+
+import com.forum.model.Answer;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+
+import java.util.List;
+
+/**
+ * Composite answer ranking:
+ * <pre>
+ *   rankScore = votes * 2 + (accepted ? 10 : 0) + (qualityScore ?? 0)
+ * </pre>
+ * Persisted on Answer and indexed with questionId, so the best answers are
+ * read in index order. Writes that change one of the inputs recompute it on
+ * the server with {@link #recompute()} in the same update; create sets it with
+ * {@link #compositeScore}.
+ *
+ * The accepted answer still leads, whatever its votes: {@link #BEST_FIRST}
+ * sorts on accepted before rankScore, so the score only orders the answers
+ * within each group. Ties go to the older answer.
+ */
+public final class AnswerRanking {
+
+    public static final Sort BEST_FIRST = Sort.by(Sort.Order.desc("accepted"), Sort.Order.desc("rankScore"),
+            Sort.Order.asc("createdAt"));
+
+    private AnswerRanking() {
+    }
+
+    public static double compositeScore(Answer answer) {
+        return answer.getVotes() * 2.0
+                + (answer.isAccepted() ? 10.0 : 0.0)
+                + (answer.getQualityScore() != null ? answer.getQualityScore() : 0.0);
+    }
+
+    /**
+     * Pipeline-update stage that sets rankScore from the document's own fields.
+     * Goes after the stages that change votes, accepted or qualityScore.
+     */
+    public static AggregationOperation recompute() {
+        return context -> new Document("$set", new Document("rankScore", new Document("$add", List.of(
+                new Document("$multiply", List.of("$votes", 2)),
+                new Document("$cond", List.of("$accepted", 10, 0)),
+                new Document("$ifNull", List.of("$qualityScore", 0))))));
+    }
+}
@@ -3,11 +3,17 @@ package com.forum.service;
 import com.forum.activity.ActivityLogService;
 import com.forum.activity.ActivityType;
 import com.forum.event.ForumEvent;
-import com.forum.kafka.KafkaProducerService;
 import com.forum.model.Answer;
+import com.forum.model.Question;
+import com.forum.outbox.OutboxService;
 import com.forum.repository.AnswerRepository;
-import com.forum.repository.QuestionRepository;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -16,125 +22,166 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 
 import java.time.Instant;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 @Service
 public class AnswerService {
 
     private final AnswerRepository answerRepository;
-    private final QuestionRepository questionRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final QuestionCache questionCache;
+    private final OutboxService outboxService;
     private final ActivityLogService activityLogService;
+    private final AnswerVoteEngine answerVoteEngine;
+    private final QuestionStatsService questionStatsService;
     private final Scheduler answerFetchScheduler;
     private final Scheduler voteCalculationScheduler;
+    private final SingleFlight<String, List<Answer>> answersByQuestion;
 
     public AnswerService(AnswerRepository answerRepository,
-                         QuestionRepository questionRepository,
-                         KafkaProducerService kafkaProducerService,
+                         ReactiveMongoTemplate reactiveMongoTemplate,
+                         QuestionCache questionCache,
+                         OutboxService outboxService,
                          ActivityLogService activityLogService,
+                         AnswerVoteEngine answerVoteEngine,
+                         QuestionStatsService questionStatsService,
                          @Qualifier("answerFetchScheduler") Scheduler answerFetchScheduler,
-                         @Qualifier("voteCalculationScheduler") Scheduler voteCalculationScheduler) {
+                         @Qualifier("voteCalculationScheduler") Scheduler voteCalculationScheduler,
+                         SingleFlightRegistry singleFlightRegistry) {
         this.answerRepository = answerRepository;
-        this.questionRepository = questionRepository;
-        this.kafkaProducerService = kafkaProducerService;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.questionCache = questionCache;
+        this.outboxService = outboxService;
         this.activityLogService = activityLogService;
+        this.answerVoteEngine = answerVoteEngine;
+        this.questionStatsService = questionStatsService;
         this.answerFetchScheduler = answerFetchScheduler;
         this.voteCalculationScheduler = voteCalculationScheduler;
+        this.answersByQuestion = singleFlightRegistry.create("answersByQuestion");
     }
 
     public Mono<Answer> create(String questionId, Answer answer) {
         answer.setQuestionId(questionId);
+        // Votes, acceptance and quality are server-maintained
+        answer.setVotes(0);
+        answer.setAccepted(false);
+        answer.setQualityScore(null);
+        answer.setQualityFeedback(null);
+        answer.setQualityScoredAt(null);
+        answer.setRankScore(AnswerRanking.compositeScore(answer));
 
-        return questionRepository.findById(questionId)
+        return questionCache.get(questionId)
                 .switchIfEmpty(Mono.error(
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Question not found")))
                 .flatMap(question -> answerRepository.save(answer)
-                        .publishOn(answerFetchScheduler)
-                        .doOnSuccess(saved -> {
-                            // Kafka event to sending with rate limit
+                        .flatMap(saved -> {
+                            answersByQuestion.forget(questionId);
+
+                            // Outbox event, relayed to Kafka (notifications with rate limit)
                             ForumEvent event = new ForumEvent(ForumEvent.EventType.ANSWER_CREATED);
                             event.setQuestionId(questionId);
                             event.setAnswerId(saved.getId());
                             event.setAuthorId(saved.getAuthorId());
                             event.setQuestionAuthorId(question.getAuthorId());
                             event.setTitle(question.getTitle());
-                            kafkaProducerService.publishEvent(event); // Kafka consumer service
-
-                            // Activity log
-                            activityLogService.log(saved.getAuthorId(),
-                                    ActivityType.ANSWER_CREATED,
-                                    "Answered question: " + question.getTitle(),
-                                    saved.getId(),
-                                    Map.of("questionId", questionId));
+                            return questionStatsService.answerCreated(questionId, saved.getCreatedAt())
+                                    .then(outboxService.enqueue(event))
+                                    .thenReturn(saved);
                         })
+                        .publishOn(answerFetchScheduler)
+                        .doOnSuccess(saved ->
+                                // Activity log
+                                activityLogService.log(saved.getAuthorId(),
+                                        ActivityType.ANSWER_CREATED,
+                                        "Answered question: " + question.getTitle(),
+                                        saved.getId(),
+                                        Map.of("questionId", questionId))
+                        )
                 );
     }
 
+    // Concurrent reads of the same question share one query; the answers are shared, do not mutate
     public Flux<Answer> findByQuestionId(String questionId) {
-        return answerRepository.findByQuestionId(questionId)
-                .publishOn(answerFetchScheduler);
+        return answersByQuestion.execute(questionId,
+                        () -> answerRepository.findByQuestionId(questionId, AnswerRanking.BEST_FIRST).collectList())
+                .publishOn(answerFetchScheduler)
+                .flatMapIterable(answers -> answers);
     }
 
     public Mono<Answer> vote(String id, int delta) {
-        return answerRepository.findById(id)
-                .switchIfEmpty(Mono.error(
-                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Answer not found")))
+        // Atomic $inc, coalesced per answer by the vote engine
+        return answerVoteEngine.vote(id, delta)
+                .doOnNext(saved -> answersByQuestion.forget(saved.getQuestionId()))
                 .publishOn(voteCalculationScheduler)
-                .flatMap(answer -> {
-                    answer.setVotes(answer.getVotes() + delta);
-                    answer.setUpdatedAt(Instant.now());
-                    return answerRepository.save(answer)
-                            .flatMap(saved -> questionRepository.findById(saved.getQuestionId())
-                                    .doOnSuccess(question -> {
-                                        // Kafka event
-                                        ForumEvent event = new ForumEvent(ForumEvent.EventType.ANSWER_VOTED);
-                                        event.setQuestionId(saved.getQuestionId());
-                                        event.setAnswerId(saved.getId());
-                                        event.setAuthorId(saved.getAuthorId());
-                                        event.setTitle(question != null ? question.getTitle() : "");
-                                        kafkaProducerService.publishEvent(event);
-
-                                        // Activity log
-                                        activityLogService.log(saved.getAuthorId(),
-                                                ActivityType.ANSWER_VOTED,
-                                                "Vote " + (delta > 0 ? "up" : "down") + " on answer",
-                                                saved.getId(),
-                                                Map.of("delta", String.valueOf(delta),
-                                                        "newVoteCount", String.valueOf(saved.getVotes())));
-                                    })
-                                    .thenReturn(saved)
-                            );
-                });
+                .flatMap(saved -> questionCache.get(saved.getQuestionId())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(question -> {
+                            // Outbox event
+                            ForumEvent event = new ForumEvent(ForumEvent.EventType.ANSWER_VOTED);
+                            event.setQuestionId(saved.getQuestionId());
+                            event.setAnswerId(saved.getId());
+                            event.setAuthorId(saved.getAuthorId());
+                            event.setTitle(question.map(Question::getTitle).orElse(""));
+                            event.setVoteDelta(delta);
+
+                            // Activity log
+                            activityLogService.log(saved.getAuthorId(),
+                                    ActivityType.ANSWER_VOTED,
+                                    "Vote " + (delta > 0 ? "up" : "down") + " on answer",
+                                    saved.getId(),
+                                    Map.of("delta", String.valueOf(delta),
+                                            "newVoteCount", String.valueOf(saved.getVotes())));
+
+                            return outboxService.enqueue(event);
+                        })
+                        .thenReturn(saved)
+                );
     }
 
     public Mono<Answer> accept(String id) {
-        return answerRepository.findById(id)
+        // Server-side $set, so concurrent votes and quality scores are not overwritten
+        AggregationOperation setAccepted = context -> new Document("$set",
+                new Document("accepted", true).append("updatedAt", Date.from(Instant.now())));
+        AggregationUpdate update = AggregationUpdate.from(List.of(setAccepted, AnswerRanking.recompute()));
+
+        return reactiveMongoTemplate.findAndModify(Query.query(where("_id").is(id)), update,
+                        FindAndModifyOptions.options().returnNew(true), Answer.class)
                 .switchIfEmpty(Mono.error(
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Answer not found")))
                 .publishOn(answerFetchScheduler)
-                .flatMap(answer -> {
-                    answer.setAccepted(true);
-                    answer.setUpdatedAt(Instant.now());
-                    return answerRepository.save(answer)
-                            .flatMap(saved -> questionRepository.findById(saved.getQuestionId())
-                                    .doOnSuccess(question -> {
-                                        // Kafka event
-                                        ForumEvent event = new ForumEvent(ForumEvent.EventType.ANSWER_ACCEPTED);
-                                        event.setQuestionId(saved.getQuestionId());
-                                        event.setAnswerId(saved.getId());
-                                        event.setAuthorId(saved.getAuthorId());
-                                        event.setTitle(question != null ? question.getTitle() : "");
-                                        kafkaProducerService.publishEvent(event);
-
-                                        // Activity log
-                                        activityLogService.log(saved.getAuthorId(),
-                                                ActivityType.ANSWER_ACCEPTED,
-                                                "Answer accepted on: " + (question != null ? question.getTitle() : ""),
-                                                saved.getId(),
-                                                Map.of("questionId", saved.getQuestionId()));
-                                    })
-                                    .thenReturn(saved)
-                            );
-                });
+                .flatMap(saved -> questionCache.get(saved.getQuestionId())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(question -> {
+                            String title = question.map(Question::getTitle).orElse("");
+
+                            // Outbox event
+                            ForumEvent event = new ForumEvent(ForumEvent.EventType.ANSWER_ACCEPTED);
+                            event.setQuestionId(saved.getQuestionId());
+                            event.setAnswerId(saved.getId());
+                            event.setAuthorId(saved.getAuthorId());
+                            event.setTitle(title);
+
+                            // Activity log
+                            activityLogService.log(saved.getAuthorId(),
+                                    ActivityType.ANSWER_ACCEPTED,
+                                    "Answer accepted on: " + title,
+                                    saved.getId(),
+                                    Map.of("questionId", saved.getQuestionId()));
+
+                            // Forget after the previously accepted answer was cleared too
+                            return questionStatsService.answerAccepted(saved.getQuestionId(),
+                                            saved.getId(), saved.getUpdatedAt())
+                                    .doOnTerminate(() -> answersByQuestion.forget(saved.getQuestionId()))
+                                    .then(outboxService.enqueue(event));
+                        })
+                        .thenReturn(saved)
+                );
     }
 }
@@ -0,0 +1,154 @@
+package com.forum.service;
+
+import com.forum.model.Answer;
+import com.forum.stats.StatsProvider;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Applies answer votes with a server-side update instead of read-modify-write.
+ * The same pipeline update recomputes the answer's rankScore.
+ *
+ * Votes for the same answer that arrive within the coalescing window are
+ * summed and written with a single findAndModify. Every caller in the window
+ * receives the answer as it was after that write, so the vote count returned
+ * always includes the caller's own vote. The question's totalAnswerVotes is
+ * adjusted once per write as well, with the summed delta.
+ */
+@Service
+public class AnswerVoteEngine implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(AnswerVoteEngine.class);
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final QuestionStatsService questionStatsService;
+    private final Scheduler voteCalculationScheduler;
+    private final Duration coalesceWindow;
+
+    // answerId -> votes waiting for the next write; only mutated inside compute()
+    private final ConcurrentHashMap<String, PendingVotes> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong votesReceived = new AtomicLong(0);
+    private final AtomicLong writesIssued = new AtomicLong(0);
+    private final AtomicLong writesFailed = new AtomicLong(0);
+
+    public AnswerVoteEngine(ReactiveMongoTemplate reactiveMongoTemplate,
+                            QuestionStatsService questionStatsService,
+                            @Qualifier("voteCalculationScheduler") Scheduler voteCalculationScheduler,
+                            @Value("${forum.votes.coalesceWindowMs:50}") long coalesceWindowMs) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.questionStatsService = questionStatsService;
+        this.voteCalculationScheduler = voteCalculationScheduler;
+        this.coalesceWindow = Duration.ofMillis(coalesceWindowMs);
+    }
+
+    public Mono<Answer> vote(String answerId, int delta) {
+        if (coalesceWindow.isZero()) {
+            votesReceived.incrementAndGet();
+            return applyIncrement(answerId, delta)
+                    .switchIfEmpty(Mono.error(
+                            new ResponseStatusException(HttpStatus.NOT_FOUND, "Answer not found")));
+        }
+
+        return Mono.create(sink -> {
+            votesReceived.incrementAndGet();
+            boolean[] opened = {false};
+            pending.compute(answerId, (id, votes) -> {
+                if (votes == null) {
+                    votes = new PendingVotes();
+                    opened[0] = true;
+                }
+                votes.delta += delta;
+                votes.waiters.add(sink);
+                return votes;
+            });
+
+            // The caller that opens the window schedules its flush
+            if (opened[0]) {
+                Mono.delay(coalesceWindow)
+                        .publishOn(voteCalculationScheduler)
+                        .subscribe(tick -> flush(answerId));
+            }
+        });
+    }
+
+    private void flush(String answerId) {
+        PendingVotes votes = pending.remove(answerId);
+        if (votes == null) {
+            return;
+        }
+
+        applyIncrement(answerId, votes.delta)
+                .switchIfEmpty(Mono.error(
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Answer not found")))
+                .subscribe(
+                        updated -> votes.waiters.forEach(sink -> sink.success(updated)),
+                        error -> {
+                            writesFailed.incrementAndGet();
+                            log.error("Failed to apply votes: answerId={}, delta={}", answerId, votes.delta, error);
+                            votes.waiters.forEach(sink -> sink.error(error));
+                        }
+                );
+    }
+
+    private Mono<Answer> applyIncrement(String answerId, int delta) {
+        writesIssued.incrementAndGet();
+        Query query = Query.query(where("_id").is(answerId));
+        AggregationOperation addVotes = context -> new Document("$set",
+                new Document("votes", new Document("$add", List.of("$votes", delta)))
+                        .append("updatedAt", Date.from(Instant.now())));
+        AggregationUpdate update = AggregationUpdate.from(List.of(addVotes, AnswerRanking.recompute()));
+        return reactiveMongoTemplate.findAndModify(query, update,
+                        FindAndModifyOptions.options().returnNew(true), Answer.class)
+                .flatMap(updated -> questionStatsService
+                        .answerVoted(updated.getQuestionId(), delta, updated.getUpdatedAt())
+                        .thenReturn(updated));
+    }
+
+    @Override
+    public String statsName() {
+        return "votes";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("votesReceived", votesReceived.get());
+        stats.put("writesIssued", writesIssued.get());
+        stats.put("writesFailed", writesFailed.get());
+        stats.put("pendingAnswers", pending.size());
+        stats.put("coalesceWindowMs", coalesceWindow.toMillis());
+        return stats;
+    }
+
+    private static class PendingVotes {
+        private int delta;
+        private final List<MonoSink<Answer>> waiters = new ArrayList<>();
+    }
+}
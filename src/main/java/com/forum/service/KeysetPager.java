@@ -0,0 +1,104 @@
+package com.forum.service;
+
+import com.forum.model.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keyset (cursor) pagination over (time field desc, _id desc).
+ *
+ * The cursor is the base64url encoding of "epochMillis:id" of the last item
+ * on the previous page. Each collection paged here has a compound index
+ * matching its filter fields followed by {time: -1, _id: -1}.
+ *
+ * Documents without a time value have no position and are not paged: they
+ * would sort after every dated one and could not be encoded as a cursor.
+ */
+@Component
+public class KeysetPager {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public KeysetPager(ReactiveMongoTemplate reactiveMongoTemplate,
+                       @Value("${forum.paging.defaultLimit:20}") int defaultLimit,
+                       @Value("${forum.paging.maxLimit:100}") int maxLimit) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public <T> Mono<CursorPage<T>> page(Criteria filter, String timeField, String cursor, Integer limit,
+                                        Class<T> type, Function<T, Instant> timeOf, Function<T, String> idOf) {
+        int pageSize = clampLimit(limit);
+        Query query = new Query();
+        if (filter != null) {
+            query.addCriteria(filter);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Position after = decode(cursor);
+            query.addCriteria(new Criteria().orOperator(
+                    where(timeField).lt(after.time()),
+                    new Criteria().andOperator(where(timeField).is(after.time()), where("_id").lt(after.id()))
+            ));
+        } else {
+            // Later pages exclude them through the range on timeField
+            query.addCriteria(where(timeField).ne(null));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, timeField, "_id"));
+        // One extra row tells whether another page exists
+        query.limit(pageSize + 1);
+
+        return reactiveMongoTemplate.find(query, type)
+                .collectList()
+                .map(rows -> {
+                    if (rows.size() <= pageSize) {
+                        return new CursorPage<>(rows, null);
+                    }
+                    List<T> items = rows.subList(0, pageSize);
+                    T last = items.get(pageSize - 1);
+                    return new CursorPage<>(List.copyOf(items), encode(timeOf.apply(last), idOf.apply(last)));
+                });
+    }
+
+    public int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultLimit;
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    static String encode(Instant time, String id) {
+        String raw = time.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new Position(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, sep))), raw.substring(sep + 1));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    record Position(Instant time, String id) {
+    }
+}
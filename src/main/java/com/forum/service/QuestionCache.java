@@ -0,0 +1,128 @@
+package com.forum.service;
+
+import com.forum.index.QuestionChangeListener;
+import com.forum.model.Question;
+import com.forum.repository.QuestionRepository;
+import com.forum.stats.StatsProvider;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-through cache of questions by id.
+ *
+ * Backed by Caffeine, whose W-TinyLFU policy only admits a new entry when it
+ * is used more often than the entry it would evict, so a scan over cold
+ * questions cannot flush the hot front-page ones. Entries are weighed by an
+ * estimate of their size and expire after the configured TTL.
+ *
+ * Concurrent misses for the same id share one Mongo read (the AsyncCache keeps
+ * the in-flight future); with the cache disabled a SingleFlight group does the
+ * same. Local writes
+ * invalidate through QuestionChangeListener; other instances invalidate from
+ * the questions topic (QuestionCacheInvalidationListener).
+ *
+ * Cached questions are shared: callers must not mutate them.
+ */
+@Component
+public class QuestionCache implements QuestionChangeListener, StatsProvider {
+
+    private static final int BASE_WEIGHT = 128;
+
+    private final QuestionRepository questionRepository;
+    private final boolean enabled;
+    private final AsyncCache<String, Question> cache;
+    private final SingleFlight<String, Question> uncachedLoads;
+
+    public QuestionCache(QuestionRepository questionRepository,
+                         @Value("${forum.questionCache.enabled:true}") boolean enabled,
+                         @Value("${forum.questionCache.maxWeightBytes:67108864}") long maxWeightBytes,
+                         @Value("${forum.questionCache.ttl:10m}") Duration ttl,
+                         SingleFlightRegistry singleFlightRegistry) {
+        this.questionRepository = questionRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String id, Question question) -> estimateBytes(question))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.uncachedLoads = singleFlightRegistry.create("questionById");
+    }
+
+    public Mono<Question> get(String id) {
+        if (id == null) {
+            return Mono.empty();
+        }
+        if (!enabled) {
+            return uncachedLoads.execute(id, () -> questionRepository.findById(id));
+        }
+        // A load that completes empty is not cached. The load starts on subscribe, and one
+        // subscriber cancelling must not cancel the future the other callers share.
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> questionRepository.findById(key).toFuture()),
+                true);
+    }
+
+    // Also drops an in-flight load, so a read after the write sees it
+    public void invalidate(String id) {
+        if (id != null) {
+            cache.synchronous().invalidate(id);
+            uncachedLoads.forget(id);
+        }
+    }
+
+    // --- QuestionChangeListener ---
+
+    @Override
+    public void onQuestionSaved(Question previous, Question current) {
+        invalidate(current.getId());
+    }
+
+    @Override
+    public void onQuestionDeleted(Question question) {
+        invalidate(question.getId());
+    }
+
+    // Strings are UTF-16 internally; add a fixed overhead for the object and map entry
+    private static int estimateBytes(Question question) {
+        long chars = length(question.getTitle()) + length(question.getBody()) + length(question.getAuthorId());
+        if (question.getTags() != null) {
+            for (String tag : question.getTags()) {
+                chars += length(tag) + 16;
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, BASE_WEIGHT + 2 * chars);
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    @Override
+    public String statsName() {
+        return "question-cache";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        CacheStats cacheStats = cache.synchronous().stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("entries", cache.synchronous().estimatedSize());
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("loads", cacheStats.loadCount());
+        stats.put("loadFailures", cacheStats.loadFailureCount());
+        stats.put("evictions", cacheStats.evictionCount());
+        stats.put("evictedWeight", cacheStats.evictionWeight());
+        return stats;
+    }
+}
@@ -0,0 +1,96 @@
+package com.forum.service;
+
+import com.forum.model.Answer;
+import com.forum.model.Question;
+import com.forum.model.QuestionDetail;
+import com.forum.model.User;
+import com.forum.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Builds the question page in one request.
+ *
+ * The question (through QuestionCache), the ranked answers and the answer
+ * count are fetched concurrently; the authors of all of them are then
+ * resolved with a single $in lookup on users.
+ */
+@Service
+public class QuestionDetailService {
+
+    private final QuestionService questionService;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final UserRepository userRepository;
+    private final Scheduler answerFetchScheduler;
+    private final int maxAnswerLimit;
+
+    public QuestionDetailService(QuestionService questionService,
+                                 ReactiveMongoTemplate reactiveMongoTemplate,
+                                 UserRepository userRepository,
+                                 @Qualifier("answerFetchScheduler") Scheduler answerFetchScheduler,
+                                 @Value("${forum.questionDetail.maxAnswerLimit:500}") int maxAnswerLimit) {
+        this.questionService = questionService;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.userRepository = userRepository;
+        this.answerFetchScheduler = answerFetchScheduler;
+        this.maxAnswerLimit = maxAnswerLimit;
+    }
+
+    public Mono<QuestionDetail> getDetail(String questionId, Integer answerLimit) {
+        int limit = answerLimit == null || answerLimit <= 0
+                ? maxAnswerLimit
+                : Math.min(answerLimit, maxAnswerLimit);
+
+        // Equality on questionId, then the whole sort, in the {questionId, accepted, rankScore, createdAt} index
+        Query answersQuery = Query.query(where("questionId").is(questionId))
+                .with(AnswerRanking.BEST_FIRST)
+                .limit(limit);
+        Query countQuery = Query.query(where("questionId").is(questionId));
+
+        Mono<Question> question = questionService.findById(questionId);
+        Mono<List<Answer>> answers = reactiveMongoTemplate.find(answersQuery, Answer.class).collectList();
+        Mono<Long> count = reactiveMongoTemplate.count(countQuery, Answer.class);
+
+        return Mono.zip(question, answers, count)
+                .publishOn(answerFetchScheduler)
+                .flatMap(tuple -> authorNames(tuple.getT1(), tuple.getT2())
+                        .map(names -> new QuestionDetail(tuple.getT1(), tuple.getT2(), tuple.getT3(), names)));
+    }
+
+    private Mono<Map<String, String>> authorNames(Question question, List<Answer> answers) {
+        Set<String> authorIds = new LinkedHashSet<>();
+        if (question.getAuthorId() != null) {
+            authorIds.add(question.getAuthorId());
+        }
+        for (Answer answer : answers) {
+            if (answer.getAuthorId() != null) {
+                authorIds.add(answer.getAuthorId());
+            }
+        }
+        if (authorIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return userRepository.findAllById(authorIds)
+                .collect(HashMap<String, String>::new, (names, user) -> names.put(user.getId(), displayName(user)))
+                .map(names -> (Map<String, String>) names);
+    }
+
+    private static String displayName(User user) {
+        return user.getDisplayName() != null && !user.getDisplayName().isBlank()
+                ? user.getDisplayName()
+                : user.getUsername();
+    }
+}
@@ -0,0 +1,29 @@
+package com.forum.service;
+
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Field projections for reading questions as QuestionSummary. The body never
+ * leaves Mongo; only its first EXCERPT_LENGTH code points are returned as
+ * excerpt.
+ */
+public final class QuestionProjections {
+
+    public static final String COLLECTION = "questions";
+    public static final int EXCERPT_LENGTH = 200;
+
+    private static final MongoExpression EXCERPT =
+            MongoExpression.create("{ $substrCP: [ { $ifNull: ['$body', ''] }, 0, " + EXCERPT_LENGTH + " ] }");
+
+    private QuestionProjections() {
+    }
+
+    public static Query summary(Query query) {
+        query.fields()
+                .include("_id", "title", "tags", "authorId", "votes", "answerCount", "acceptedAnswerId",
+                        "totalAnswerVotes", "createdAt", "updatedAt", "lastActivityAt")
+                .project(EXCERPT).as("excerpt");
+        return query;
+    }
+}
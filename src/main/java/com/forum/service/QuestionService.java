@@ -2,12 +2,22 @@ package com.forum.service;
 
 import com.forum.activity.ActivityLogService;
 import com.forum.activity.ActivityType;
+import com.forum.duplicate.DuplicateIndex;
 import com.forum.event.ForumEvent;
-import com.forum.kafka.KafkaProducerService;
+import com.forum.index.QuestionChangeDispatcher;
+import com.forum.model.CursorPage;
+import com.forum.model.DuplicateCandidate;
 import com.forum.model.Question;
+import com.forum.model.QuestionSummary;
+import com.forum.outbox.OutboxService;
 import com.forum.repository.AnswerRepository;
 import com.forum.repository.QuestionRepository;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -16,40 +26,78 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Map;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
 @Service
 public class QuestionService {
 
     private final QuestionRepository questionRepository;
     private final AnswerRepository answerRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
     private final ActivityLogService activityLogService;
     private final Scheduler questionFetchScheduler;
+    private final QuestionChangeDispatcher questionChangeDispatcher;
+    private final KeysetPager keysetPager;
+    private final QuestionCache questionCache;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final DuplicateIndex duplicateIndex;
+    private final int maxDuplicatesOnCreate;
 
     public QuestionService(QuestionRepository questionRepository,
                            AnswerRepository answerRepository,
-                           KafkaProducerService kafkaProducerService,
+                           OutboxService outboxService,
                            ActivityLogService activityLogService,
-                           @Qualifier("questionFetchScheduler") Scheduler questionFetchScheduler) {
+                           @Qualifier("questionFetchScheduler") Scheduler questionFetchScheduler,
+                           QuestionChangeDispatcher questionChangeDispatcher,
+                           KeysetPager keysetPager,
+                           QuestionCache questionCache,
+                           ReactiveMongoTemplate reactiveMongoTemplate,
+                           DuplicateIndex duplicateIndex,
+                           @Value("${forum.duplicates.maxOnCreate:5}") int maxDuplicatesOnCreate) {
         this.questionRepository = questionRepository;
         this.answerRepository = answerRepository;
-        this.kafkaProducerService = kafkaProducerService;
+        this.outboxService = outboxService;
         this.activityLogService = activityLogService;
         this.questionFetchScheduler = questionFetchScheduler;
+        this.questionChangeDispatcher = questionChangeDispatcher;
+        this.keysetPager = keysetPager;
+        this.questionCache = questionCache;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.duplicateIndex = duplicateIndex;
+        this.maxDuplicatesOnCreate = maxDuplicatesOnCreate;
     }
 
     public Mono<Question> create(Question question) {
+        // Answer stats are server-maintained
+        question.setAnswerCount(0);
+        question.setAcceptedAnswerId(null);
+        question.setTotalAnswerVotes(0);
+        question.setLastActivityAt(question.getCreatedAt());
+        question.setVersion(0);
+        // In-memory LSH lookup, well under a millisecond
+        question.setPossibleDuplicateIds(duplicateIndex
+                .findSimilar(question.getTitle(), question.getBody(), null, maxDuplicatesOnCreate)
+                .stream()
+                .map(DuplicateCandidate::getQuestionId)
+                .toList());
+
         return questionRepository.save(question)
-                .publishOn(questionFetchScheduler)
-                .doOnSuccess(saved -> {
-                    // Kafka event
+                .flatMap(saved -> {
+                    // Outbox event, relayed to Kafka in the background
                     ForumEvent event = new ForumEvent(ForumEvent.EventType.QUESTION_CREATED);
                     event.setQuestionId(saved.getId());
                     event.setAuthorId(saved.getAuthorId());
                     event.setTitle(saved.getTitle());
                     event.setBody(saved.getBody());
-                    kafkaProducerService.publishEvent(event);
+                    return outboxService.enqueue(event).thenReturn(saved);
+                })
+                .publishOn(questionFetchScheduler)
+                .doOnSuccess(saved -> {
+                    // In-memory indexes
+                    questionChangeDispatcher.saved(null, saved);
 
                     // Activity log
                     activityLogService.log(saved.getAuthorId(),
@@ -65,7 +113,34 @@ public class QuestionService {
                 .publishOn(questionFetchScheduler);
     }
 
+    public Flux<QuestionSummary> findAllSummaries() {
+        return reactiveMongoTemplate.find(QuestionProjections.summary(new Query()),
+                        QuestionSummary.class, QuestionProjections.COLLECTION)
+                .publishOn(questionFetchScheduler);
+    }
+
+    // Newest first, keyset on (createdAt, id)
+    public Mono<CursorPage<Question>> findPage(String cursor, Integer limit) {
+        return keysetPager.page(null, "createdAt", cursor, limit,
+                        Question.class, Question::getCreatedAt, Question::getId)
+                .publishOn(questionFetchScheduler);
+    }
+
+    // Export-style stream: documents flow out as Mongo batches arrive
+    public Flux<Question> streamAll() {
+        return questionRepository.findAll()
+                .limitRate(256);
+    }
+
     public Mono<Question> findById(String id) {
+        return questionCache.get(id)
+                .publishOn(questionFetchScheduler)
+                .switchIfEmpty(Mono.error(
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Question not found")));
+    }
+
+    // Writes read their own copy; cached instances are shared and must not be mutated
+    private Mono<Question> findForWrite(String id) {
         return questionRepository.findById(id)
                 .publishOn(questionFetchScheduler)
                 .switchIfEmpty(Mono.error(
@@ -73,13 +148,23 @@ public class QuestionService {
     }
 
     public Mono<Question> update(String id, Question updated) {
-        return findById(id)
+        return findForWrite(id)
                 .flatMap(existing -> {
-                    existing.setTitle(updated.getTitle());
-                    existing.setBody(updated.getBody());
-                    existing.setTags(updated.getTags());
-                    existing.setUpdatedAt(Instant.now());
-                    return questionRepository.save(existing);
+                    Question previous = snapshot(existing);
+                    // $set only the edited fields so concurrent answer-stat updates are kept
+                    Update edit = new Update()
+                            .set("title", updated.getTitle())
+                            .set("body", updated.getBody())
+                            .set("tags", updated.getTags())
+                            .set("updatedAt", Instant.now())
+                            .inc("version", 1);
+                    return reactiveMongoTemplate.findAndModify(Query.query(where("_id").is(id)), edit,
+                                    FindAndModifyOptions.options().returnNew(true), Question.class)
+                            .switchIfEmpty(Mono.error(
+                                    new ResponseStatusException(HttpStatus.NOT_FOUND, "Question not found")))
+                            .flatMap(saved -> outboxService.enqueue(questionEvent(
+                                    ForumEvent.EventType.QUESTION_UPDATED, saved)).thenReturn(saved))
+                            .doOnSuccess(saved -> questionChangeDispatcher.saved(previous, saved));
                 })
                 .doOnSuccess(saved ->
                         activityLogService.log(saved.getAuthorId(),
@@ -90,20 +175,49 @@ public class QuestionService {
     }
 
     public Mono<Void> delete(String id) {
-        return findById(id)
+        return findForWrite(id)
                 .doOnSuccess(question ->
                         activityLogService.log(question.getAuthorId(),
                                 ActivityType.QUESTION_DELETED,
                                 "Deleted question: " + question.getTitle(),
                                 question.getId())
                 )
-                .flatMap(question -> questionRepository.deleteById(id));
+                .flatMap(question -> questionRepository.deleteById(id)
+                        .then(outboxService.enqueue(questionEvent(ForumEvent.EventType.QUESTION_DELETED, question)))
+                        .then()
+                        .doOnSuccess(done -> questionChangeDispatcher.deleted(question)));
     }
 
     public Flux<String> getAnswerIdsByQuestionId(String questionId) {
-        return findById(questionId)
+        // Existence check and answer read run concurrently
+        return Mono.zip(findById(questionId),
+                        answerRepository.findByQuestionId(questionId)
+                                .map(answer -> answer.getId())
+                                .collectList())
                 .publishOn(questionFetchScheduler)
-                .thenMany(answerRepository.findByQuestionId(questionId)
-                        .map(answer -> answer.getId()));
+                .flatMapIterable(tuple -> tuple.getT2());
+    }
+
+    // Lets other instances drop the question from their caches
+    private static ForumEvent questionEvent(ForumEvent.EventType type, Question question) {
+        ForumEvent event = new ForumEvent(type);
+        event.setQuestionId(question.getId());
+        event.setAuthorId(question.getAuthorId());
+        event.setTitle(question.getTitle());
+        return event;
+    }
+
+    // Copy of the indexed fields before an update mutates the document
+    private static Question snapshot(Question question) {
+        Question copy = new Question();
+        copy.setId(question.getId());
+        copy.setTitle(question.getTitle());
+        copy.setBody(question.getBody());
+        copy.setTags(question.getTags() != null ? new ArrayList<>(question.getTags()) : new ArrayList<>());
+        copy.setAuthorId(question.getAuthorId());
+        copy.setCreatedAt(question.getCreatedAt());
+        copy.setUpdatedAt(question.getUpdatedAt());
+        copy.setVersion(question.getVersion());
+        return copy;
     }
 }
@@ -0,0 +1,269 @@
+package com.forum.service;
+
+import com.forum.model.Answer;
+import com.forum.model.Question;
+import com.forum.stats.StatsProvider;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keeps the answer statistics denormalized on Question (answerCount,
+ * acceptedAnswerId, totalAnswerVotes, lastActivityAt) so list views never
+ * query answers per row.
+ *
+ * Answer writes update them with single atomic $inc/$set/$max operations,
+ * each of which also increments the question's version so cached responses
+ * built from it (ETags) change.
+ * A failed stats update is logged, counted in the stats and does not fail the
+ * answer write; the repair job recomputes everything from the answers
+ * collection, one page of questions per aggregation and bulk write. Increments
+ * that land while a page is being repaired can be overwritten, so run it
+ * off-peak, and run it whenever the failure count goes up.
+ */
+@Service
+public class QuestionStatsService implements StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionStatsService.class);
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final QuestionCache questionCache;
+    private final int pageSize;
+
+    private final AtomicLong updates = new AtomicLong(0);
+    private final AtomicLong failures = new AtomicLong(0);
+    private final AtomicReference<Instant> lastFailureAt = new AtomicReference<>();
+    private final AtomicLong repairRuns = new AtomicLong(0);
+    private final AtomicReference<Instant> lastRepairAt = new AtomicReference<>();
+
+    public QuestionStatsService(ReactiveMongoTemplate reactiveMongoTemplate,
+                                QuestionCache questionCache,
+                                @Value("${forum.questionStats.repairPageSize:1000}") int pageSize) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.questionCache = questionCache;
+        this.pageSize = pageSize;
+    }
+
+    // --- Incremental updates ---
+
+    public Mono<Void> answerCreated(String questionId, Instant at) {
+        return apply(questionId, new Update()
+                .inc("answerCount", 1)
+                .max("lastActivityAt", at));
+    }
+
+    public Mono<Void> answerVoted(String questionId, int delta, Instant at) {
+        return apply(questionId, new Update()
+                .inc("totalAnswerVotes", delta)
+                .max("lastActivityAt", at));
+    }
+
+    /**
+     * Records the accepted answer and takes the flag off the answer that was
+     * accepted before, so a question never has two.
+     */
+    public Mono<Void> answerAccepted(String questionId, String answerId, Instant at) {
+        if (questionId == null) {
+            return Mono.empty();
+        }
+        Query previouslyAccepted = Query.query(where("questionId").is(questionId)
+                .and("accepted").is(true)
+                .and("_id").ne(answerId));
+        AggregationOperation clearAccepted = context -> new Document("$set",
+                new Document("accepted", false).append("updatedAt", Date.from(at)));
+        AggregationUpdate unaccept = AggregationUpdate.from(List.of(clearAccepted, AnswerRanking.recompute()));
+
+        return reactiveMongoTemplate.updateMulti(previouslyAccepted, unaccept, Answer.class)
+                .then()
+                .onErrorResume(error -> failed(questionId, error))
+                .then(apply(questionId, new Update()
+                        .set("acceptedAnswerId", answerId)
+                        .max("lastActivityAt", at)));
+    }
+
+    // Only bumps the version, so cached answer lists pick up the new quality score; scoring is not activity
+    public Mono<Void> answerScored(String questionId) {
+        return apply(questionId, new Update());
+    }
+
+    private Mono<Void> apply(String questionId, Update update) {
+        if (questionId == null) {
+            return Mono.empty();
+        }
+        update.inc("version", 1);
+        return reactiveMongoTemplate.updateFirst(Query.query(where("_id").is(questionId)), update, Question.class)
+                .doOnSuccess(result -> {
+                    updates.incrementAndGet();
+                    questionCache.invalidate(questionId);
+                })
+                .then()
+                .onErrorResume(error -> failed(questionId, error));
+    }
+
+    private Mono<Void> failed(String questionId, Throwable error) {
+        failures.incrementAndGet();
+        lastFailureAt.set(Instant.now());
+        log.error("Failed to update question stats: questionId={}", questionId, error);
+        return Mono.empty();
+    }
+
+    // --- Repair ---
+
+    /**
+     * Recompute the stats of every question from the answers collection.
+     */
+    public Mono<Map<String, Object>> repairAll() {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            AtomicLong questions = new AtomicLong(0);
+            AtomicLong modified = new AtomicLong(0);
+
+            return repairPage(null)
+                    .expand(page -> page.last() ? Mono.empty() : repairPage(page.lastQuestionId()))
+                    .doOnNext(page -> {
+                        questions.addAndGet(page.questions());
+                        modified.addAndGet(page.modified());
+                    })
+                    .then(Mono.fromSupplier(() -> {
+                        repairRuns.incrementAndGet();
+                        lastRepairAt.set(Instant.now());
+                        long elapsedMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+                        log.info("Question stats repair complete: questions={}, modified={}, elapsedMs={}",
+                                questions.get(), modified.get(), elapsedMs);
+
+                        Map<String, Object> result = new LinkedHashMap<>();
+                        result.put("questionsProcessed", questions.get());
+                        result.put("questionsModified", modified.get());
+                        result.put("elapsedMs", elapsedMs);
+                        return result;
+                    }));
+        });
+    }
+
+    private Mono<RepairPage> repairPage(String afterId) {
+        Query pageQuery = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(pageSize);
+        if (afterId != null) {
+            pageQuery.addCriteria(where("_id").gt(afterId));
+        }
+        pageQuery.fields().include("_id").include("createdAt").include("updatedAt");
+
+        return reactiveMongoTemplate.find(pageQuery, Question.class)
+                .collectList()
+                .flatMap(page -> {
+                    if (page.isEmpty()) {
+                        return Mono.just(new RepairPage(null, 0, 0, true));
+                    }
+                    List<String> ids = page.stream().map(Question::getId).toList();
+                    return aggregateStats(ids)
+                            .flatMap(stats -> writeStats(page, stats))
+                            .map(modified -> new RepairPage(ids.get(ids.size() - 1), ids.size(), modified,
+                                    ids.size() < pageSize));
+                });
+    }
+
+    private Mono<Map<String, Document>> aggregateStats(List<String> questionIds) {
+        // acceptedAnswerId: $max ignores the nulls produced for non-accepted answers
+        AggregationOperation groupStats = context -> new Document("$group", new Document("_id", "$questionId")
+                .append("answerCount", new Document("$sum", 1))
+                .append("totalAnswerVotes", new Document("$sum", "$votes"))
+                .append("lastAnswerAt", new Document("$max", "$updatedAt"))
+                .append("acceptedAnswerId", new Document("$max",
+                        new Document("$cond", Arrays.asList("$accepted", "$_id", null)))));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                match(where("questionId").in(questionIds)),
+                groupStats
+        );
+
+        return reactiveMongoTemplate.aggregate(aggregation, "answers", Document.class)
+                .collectMap(doc -> String.valueOf(doc.get("_id")));
+    }
+
+    private Mono<Integer> writeStats(List<Question> page, Map<String, Document> stats) {
+        ReactiveBulkOperations bulk = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Question.class);
+
+        for (Question question : page) {
+            Document doc = stats.get(question.getId());
+            Instant lastActivity = latest(question.getCreatedAt(), question.getUpdatedAt());
+            Update update = new Update();
+            if (doc == null) {
+                update.set("answerCount", 0)
+                        .set("totalAnswerVotes", 0L)
+                        .unset("acceptedAnswerId");
+            } else {
+                Object accepted = doc.get("acceptedAnswerId");
+                update.set("answerCount", ((Number) doc.get("answerCount")).intValue())
+                        .set("totalAnswerVotes", ((Number) doc.get("totalAnswerVotes")).longValue());
+                if (accepted instanceof ObjectId objectId) {
+                    update.set("acceptedAnswerId", objectId.toHexString());
+                } else if (accepted != null) {
+                    update.set("acceptedAnswerId", accepted.toString());
+                } else {
+                    update.unset("acceptedAnswerId");
+                }
+                if (doc.get("lastAnswerAt") instanceof Date lastAnswerAt) {
+                    lastActivity = latest(lastActivity, lastAnswerAt.toInstant());
+                }
+            }
+            update.set("lastActivityAt", lastActivity).inc("version", 1);
+            bulk.updateOne(Query.query(where("_id").is(question.getId())), update);
+        }
+
+        return bulk.execute()
+                .map(result -> result.getModifiedCount())
+                .doOnSuccess(modified -> page.forEach(question -> questionCache.invalidate(question.getId())));
+    }
+
+    @Override
+    public String statsName() {
+        return "question-stats";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("updates", updates.get());
+        stats.put("failures", failures.get());
+        stats.put("lastFailureAt", lastFailureAt.get());
+        stats.put("repairRuns", repairRuns.get());
+        stats.put("lastRepairAt", lastRepairAt.get());
+        stats.put("repairPageSize", pageSize);
+        return stats;
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
+    }
+
+    private record RepairPage(String lastQuestionId, int questions, int modified, boolean last) {
+    }
+}
@@ -1,31 +1,177 @@
 package com.forum.service;
 
 import com.forum.model.Question;
+import com.forum.model.QuestionSummary;
+import com.forum.model.TagCount;
+import com.forum.search.FuzzySearchIndex;
+import com.forum.search.QueryAnalytics;
+import com.forum.search.QuestionSearchIndex;
+import com.forum.search.SearchResultCache;
+import com.forum.tag.TagStatsService;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.TextCriteria;
 import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Full-text search over questions.
+ * forum.search.engine=mongo uses the Mongo $text index; forum.search.engine=index
+ * ranks with the in-memory BM25 index once it has finished loading and falls
+ * back to Mongo until then.
+ *
+ * Either engine produces a ranked list of at most maxResults question ids,
+ * which SearchResultCache keeps per normalized query. A request slices that
+ * list with offset/limit and loads only the documents of its page.
+ *
+ * When the exact ranking has fewer than fuzzy.minHits ids, FuzzySearchIndex
+ * appends typo-tolerant matches after the exact ones. The fallback is not
+ * cached (a new question could turn a misspelling into an exact hit) and is
+ * bounded by fuzzy.timeout; on timeout the exact ids are returned alone.
+ */
 @Service
 public class SearchService {
 
     private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final SearchResultCache searchResultCache;
     private final Scheduler searchProcessingScheduler;
+    private final int maxResults;
+    private final int defaultLimit;
+    private final FuzzySearchIndex fuzzySearchIndex;
+    private final int fuzzyMinHits;
+    private final Duration fuzzyTimeout;
+    private final TagStatsService tagStatsService;
+    private final QueryAnalytics queryAnalytics;
 
     public SearchService(ReactiveMongoTemplate reactiveMongoTemplate,
-                         @Qualifier("searchProcessingScheduler") Scheduler searchProcessingScheduler) {
+                         QuestionSearchIndex questionSearchIndex,
+                         SearchResultCache searchResultCache,
+                         @Qualifier("searchProcessingScheduler") Scheduler searchProcessingScheduler,
+                         @Value("${forum.search.maxResults:200}") int maxResults,
+                         @Value("${forum.search.defaultLimit:20}") int defaultLimit,
+                         FuzzySearchIndex fuzzySearchIndex,
+                         @Value("${forum.search.fuzzy.minHits:5}") int fuzzyMinHits,
+                         @Value("${forum.search.fuzzy.timeout:30ms}") Duration fuzzyTimeout,
+                         TagStatsService tagStatsService,
+                         QueryAnalytics queryAnalytics) {
         this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.questionSearchIndex = questionSearchIndex;
+        this.searchResultCache = searchResultCache;
         this.searchProcessingScheduler = searchProcessingScheduler;
+        this.maxResults = maxResults;
+        this.defaultLimit = defaultLimit;
+        this.fuzzySearchIndex = fuzzySearchIndex;
+        this.fuzzyMinHits = fuzzyMinHits;
+        this.fuzzyTimeout = fuzzyTimeout;
+        this.tagStatsService = tagStatsService;
+        this.queryAnalytics = queryAnalytics;
+    }
+
+    public Flux<Question> search(String keyword, int offset, Integer limit) {
+        return page(keyword, offset, limit)
+                .flatMapMany(ids -> loadInOrder(ids, Question.class, Question::getId, false));
+    }
+
+    // Same ranking, loaded with the summary projection
+    public Flux<QuestionSummary> searchSummaries(String keyword, int offset, Integer limit) {
+        return page(keyword, offset, limit)
+                .flatMapMany(ids -> loadInOrder(ids, QuestionSummary.class, QuestionSummary::getId, true));
+    }
+
+    /**
+     * Tag counts over the whole ranked result (up to maxResults), for a facet
+     * sidebar. Counted from TagStatsService without loading the documents.
+     */
+    public Mono<List<TagCount>> facets(String keyword, int limit) {
+        return rankedIds(keyword)
+                .flatMap(ids -> withFuzzyFallback(keyword, ids))
+                .map(ids -> tagStatsService.facets(ids, limit));
+    }
+
+    private Mono<List<String>> page(String keyword, int offset, Integer limit) {
+        if (offset < 0 || offset >= maxResults) {
+            return Mono.just(List.of());
+        }
+        int size = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxResults);
+        return rankedIds(keyword)
+                .flatMap(ids -> withFuzzyFallback(keyword, ids))
+                .doOnNext(ids -> {
+                    // Count each search once, not once per page
+                    if (offset == 0) {
+                        queryAnalytics.record(keyword, ids.size());
+                    }
+                })
+                .map(ids -> offset >= ids.size()
+                        ? List.<String>of()
+                        : ids.subList(offset, Math.min(ids.size(), offset + size)));
+    }
+
+    private Mono<List<String>> rankedIds(String keyword) {
+        if (questionSearchIndex.isReady()) {
+            return searchResultCache.get(SearchResultCache.normalize("index", keyword), keyword,
+                    () -> Mono.fromCallable(() -> questionSearchIndex.search(keyword, maxResults))
+                            .subscribeOn(searchProcessingScheduler));
+        }
+
+        return searchResultCache.get(SearchResultCache.normalize("mongo", keyword), keyword, () -> {
+            TextCriteria criteria = TextCriteria.forDefaultLanguage().matchingPhrase(keyword);
+            Query query = TextQuery.queryText(criteria).sortByScore().limit(maxResults);
+            query.fields().include("_id");
+            return reactiveMongoTemplate.find(query, Question.class)
+                    .map(Question::getId)
+                    .collectList()
+                    .publishOn(searchProcessingScheduler);
+        });
+    }
+
+    private Mono<List<String>> withFuzzyFallback(String keyword, List<String> exactIds) {
+        if (exactIds.size() >= fuzzyMinHits || !fuzzySearchIndex.isReady()) {
+            return Mono.just(exactIds);
+        }
+        // The deadline stops the index scan itself; the timeout covers the wait for the scheduler
+        return Mono.fromCallable(() -> {
+                    long deadline = System.nanoTime() + fuzzyTimeout.toNanos();
+                    List<String> fuzzyIds = fuzzySearchIndex.search(keyword, maxResults, deadline);
+                    LinkedHashSet<String> merged = new LinkedHashSet<>(exactIds);
+                    merged.addAll(fuzzyIds);
+                    return merged.size() > maxResults
+                            ? new ArrayList<>(merged).subList(0, maxResults)
+                            : List.copyOf(merged);
+                })
+                .subscribeOn(searchProcessingScheduler)
+                .timeout(fuzzyTimeout.multipliedBy(2), Mono.just(exactIds));
     }
 
-    public Flux<Question> search(String keyword) {
-        TextCriteria criteria = TextCriteria.forDefaultLanguage().matchingPhrase(keyword);
-        Query query = TextQuery.queryText(criteria).sortByScore();
-        return reactiveMongoTemplate.find(query, Question.class)
-                .publishOn(searchProcessingScheduler);
+    // An $in lookup does not keep the requested order, so re-sort by rank
+    private <T> Flux<T> loadInOrder(List<String> rankedIds, Class<T> type, Function<T, String> idOf,
+                                    boolean summary) {
+        if (rankedIds.isEmpty()) {
+            return Flux.empty();
+        }
+        Query query = Query.query(where("_id").in(rankedIds));
+        if (summary) {
+            QuestionProjections.summary(query);
+        }
+        return reactiveMongoTemplate.find(query, type, QuestionProjections.COLLECTION)
+                .collectMap(idOf)
+                .flatMapIterable(byId -> rankedIds.stream()
+                        .map(byId::get)
+                        .filter(Objects::nonNull)
+                        .toList());
     }
 }
@@ -0,0 +1,91 @@
+package com.forum.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: while a load for a key is in flight,
+ * further callers with the same key subscribe to it instead of starting their
+ * own. The entry is removed when the load terminates, so results are never
+ * served after the fact; this is not a cache.
+ *
+ * The shared load is reference-counted (Mono.share). A caller that cancels only
+ * detaches itself; the load is cancelled when the last caller has gone, and
+ * the next caller starts a fresh one.
+ *
+ * A caller that joins a flight gets whatever that load read, which may predate
+ * a write that completed before the caller arrived. Writers call
+ * {@link #forget(Object)} once their write is done so later callers start a
+ * fresh load; with that, a client that waits for its write to return reads
+ * its own write.
+ *
+ * Only Mono results are shared, because a late subscriber to a shared Flux
+ * would miss elements already emitted. Create instances with
+ * {@link SingleFlightRegistry#create(String)}.
+ */
+public final class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong coalesced = new AtomicLong(0);
+    private final AtomicLong forgotten = new AtomicLong(0);
+
+    SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            requests.incrementAndGet();
+            Flight<V> fresh = new Flight<>();
+            fresh.mono = Mono.defer(loader)
+                    .doFinally(signal -> inFlight.remove(key, fresh))
+                    .share();
+
+            Flight<V> existing = inFlight.putIfAbsent(key, fresh);
+            if (existing != null) {
+                coalesced.incrementAndGet();
+                return existing.mono;
+            }
+            return fresh.mono;
+        });
+    }
+
+    /**
+     * Detach the in-flight load for key, if any: callers already on it keep
+     * it, new callers start their own. Call after a write that changes what
+     * the load would return.
+     */
+    public void forget(K key) {
+        if (inFlight.remove(key) != null) {
+            forgotten.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long total = requests.get();
+        long joined = coalesced.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", total);
+        stats.put("coalesced", joined);
+        stats.put("coalescedRatio", total > 0 ? (double) joined / total : 0.0);
+        stats.put("forgotten", forgotten.get());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    private static final class Flight<V> {
+        private Mono<V> mono;
+    }
+}
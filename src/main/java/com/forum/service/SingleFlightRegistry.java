@@ -0,0 +1,39 @@
+package com.forum.service;
+
+import com.forum.stats.StatsProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates the SingleFlight groups used by the read services and collects their
+ * counters for /api/stats/single-flight.
+ */
+@Component
+public class SingleFlightRegistry implements StatsProvider {
+
+    private final List<SingleFlight<?, ?>> groups = new CopyOnWriteArrayList<>();
+
+    public <K, V> SingleFlight<K, V> create(String name) {
+        SingleFlight<K, V> group = new SingleFlight<>(name);
+        groups.add(group);
+        return group;
+    }
+
+    @Override
+    public String statsName() {
+        return "single-flight";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (SingleFlight<?, ?> group : groups) {
+            stats.put(group.name(), group.stats());
+        }
+        return stats;
+    }
+}
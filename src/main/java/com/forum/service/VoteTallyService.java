@@ -2,23 +2,47 @@ package com.forum.service;
 
 import com.forum.model.Answer;
 import com.forum.model.Question;
+import com.forum.model.QuestionVoteTally;
+import com.forum.model.VoteTallyCheckpoint;
 import com.forum.repository.AnswerRepository;
 import com.forum.repository.QuestionRepository;
+import com.forum.repository.VoteTallyCheckpointRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 /**
  * CPU-bound batch processing service using ExecutorService thread pools.
@@ -33,13 +57,25 @@ public class VoteTallyService {
     private final AnswerRepository answerRepository;
     private final QuestionRepository questionRepository;
     private final ExecutorService batchTaskExecutor;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final VoteTallyCheckpointRepository checkpointRepository;
+    private final int pageSize;
+    private final Duration leaseTtl;
 
     public VoteTallyService(AnswerRepository answerRepository,
                             QuestionRepository questionRepository,
-                            @Qualifier("batchTaskExecutor") ExecutorService batchTaskExecutor) {
+                            @Qualifier("batchTaskExecutor") ExecutorService batchTaskExecutor,
+                            ReactiveMongoTemplate reactiveMongoTemplate,
+                            VoteTallyCheckpointRepository checkpointRepository,
+                            @Value("${forum.voteTally.pageSize:1000}") int pageSize,
+                            @Value("${forum.voteTally.leaseTtl:5m}") Duration leaseTtl) {
         this.answerRepository = answerRepository;
         this.questionRepository = questionRepository;
         this.batchTaskExecutor = batchTaskExecutor;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.pageSize = pageSize;
+        this.leaseTtl = leaseTtl;
     }
 
     /**
@@ -107,4 +143,182 @@ public class VoteTallyService {
             );
         }).subscribeOn(Schedulers.boundedElastic()); // Run blocking code on bounded elastic
     }
+
+    /**
+     * Aggregation mode: walk the whole questions collection in _id order, one
+     * page at a time, and sum answer votes per question with a single grouped
+     * aggregation per page. Answer bodies never leave Mongo.
+     *
+     * A run holds a lease on its checkpoint document, so a second run of the
+     * same jobId fails with 409 while the first is alive. The checkpoint is
+     * saved only after a page's tallies have been emitted; a run that is
+     * cancelled mid-page repeats that page on resume instead of skipping it.
+     */
+    public Flux<QuestionVoteTally> streamTally(String jobId, boolean resume) {
+        String owner = UUID.randomUUID().toString();
+        return acquire(jobId, owner)
+                .map(claimed -> startingPoint(claimed, resume))
+                .flatMapMany(start -> tallyPage(start)
+                        .expand(page -> page.last() ? Mono.empty() : tallyPage(page.checkpoint()))
+                        .concatMap(page -> Flux.fromIterable(page.tallies())
+                                .concatWith(saveProgress(page.checkpoint(), owner).then(Mono.empty())))
+                )
+                .doFinally(signal -> release(jobId, owner).subscribe());
+    }
+
+    /**
+     * Run {@link #streamTally} to completion and report totals and throughput.
+     */
+    public Mono<Map<String, Object>> recalculateAllVotes(String jobId, boolean resume) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            AtomicLong processed = new AtomicLong(0);
+            AtomicLong votes = new AtomicLong(0);
+
+            return streamTally(jobId, resume)
+                    .doOnNext(tally -> {
+                        processed.incrementAndGet();
+                        votes.addAndGet(tally.getTotalVotes());
+                    })
+                    .then(checkpointRepository.findById(jobId))
+                    .map(checkpoint -> {
+                        long elapsedMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+                        double perSecond = elapsedMs > 0 ? processed.get() * 1000.0 / elapsedMs : processed.get();
+
+                        log.info("Vote tally job={} complete: processed={}, totalVotes={}, elapsedMs={}, questionsPerSec={}",
+                                jobId, processed.get(), votes.get(), elapsedMs, String.format("%.1f", perSecond));
+
+                        Map<String, Object> result = new LinkedHashMap<>();
+                        result.put("jobId", jobId);
+                        result.put("questionsProcessed", processed.get());
+                        result.put("totalVotes", votes.get());
+                        result.put("jobQuestionsProcessed", checkpoint.getQuestionsProcessed());
+                        result.put("jobTotalVotes", checkpoint.getTotalVotes());
+                        result.put("elapsedMs", elapsedMs);
+                        result.put("questionsPerSecond", perSecond);
+                        return result;
+                    });
+        });
+    }
+
+    // Claims the job's checkpoint (creating it on first run) unless another run holds a live lease
+    private Mono<VoteTallyCheckpoint> acquire(String jobId, String owner) {
+        Instant now = Instant.now();
+        Query query = Query.query(where("_id").is(jobId)
+                .orOperator(where("leaseUntil").is(null), where("leaseUntil").lt(now)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("leaseUntil", now.plus(leaseTtl))
+                .setOnInsert("startedAt", now);
+
+        return reactiveMongoTemplate.findAndModify(query, update,
+                        FindAndModifyOptions.options().upsert(true).returnNew(true), VoteTallyCheckpoint.class)
+                // The upsert collides with the existing document when its lease is still live
+                .onErrorMap(DuplicateKeyException.class, e -> new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Vote tally job " + jobId + " is already running"));
+    }
+
+    private VoteTallyCheckpoint startingPoint(VoteTallyCheckpoint claimed, boolean resume) {
+        if (resume && !claimed.isCompleted()) {
+            if (claimed.getLastQuestionId() != null) {
+                log.info("Resuming vote tally job={} after questionId={}",
+                        claimed.getJobId(), claimed.getLastQuestionId());
+            }
+            return claimed;
+        }
+        return new VoteTallyCheckpoint(claimed.getJobId());
+    }
+
+    private Mono<Void> saveProgress(VoteTallyCheckpoint checkpoint, String owner) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("lastQuestionId", checkpoint.getLastQuestionId())
+                .set("questionsProcessed", checkpoint.getQuestionsProcessed())
+                .set("totalVotes", checkpoint.getTotalVotes())
+                .set("completed", checkpoint.isCompleted())
+                .set("startedAt", checkpoint.getStartedAt())
+                .set("updatedAt", now)
+                .set("leaseUntil", now.plus(leaseTtl));
+
+        return reactiveMongoTemplate.updateFirst(
+                        Query.query(where("_id").is(checkpoint.getJobId()).and("owner").is(owner)),
+                        update, VoteTallyCheckpoint.class)
+                .flatMap(result -> result.getMatchedCount() == 0
+                        ? Mono.error(new IllegalStateException(
+                                "Vote tally job " + checkpoint.getJobId() + " lost its lease"))
+                        : Mono.empty());
+    }
+
+    private Mono<Void> release(String jobId, String owner) {
+        Update update = new Update().unset("owner").unset("leaseUntil");
+        return reactiveMongoTemplate.updateFirst(
+                        Query.query(where("_id").is(jobId).and("owner").is(owner)), update, VoteTallyCheckpoint.class)
+                .onErrorResume(error -> {
+                    log.warn("Failed to release vote tally lease: job={}", jobId, error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // Computes the next page; the returned checkpoint is a new object so pages fetched ahead never share state
+    private Mono<TallyPage> tallyPage(VoteTallyCheckpoint checkpoint) {
+        Query pageQuery = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(pageSize);
+        if (checkpoint.getLastQuestionId() != null) {
+            pageQuery.addCriteria(where("_id").gt(checkpoint.getLastQuestionId()));
+        }
+        pageQuery.fields().include("_id");
+
+        return reactiveMongoTemplate.find(pageQuery, Question.class)
+                .map(Question::getId)
+                .collectList()
+                .flatMap(questionIds -> {
+                    if (questionIds.isEmpty()) {
+                        return Mono.just(new TallyPage(List.of(), advance(checkpoint, null, 0, 0, true), true));
+                    }
+
+                    return aggregateVotes(questionIds)
+                            .map(sums -> {
+                                // Questions without answers are not in the group output
+                                List<QuestionVoteTally> tallies = new ArrayList<>(questionIds.size());
+                                long pageVotes = 0;
+                                for (String questionId : questionIds) {
+                                    QuestionVoteTally tally = sums.getOrDefault(questionId,
+                                            new QuestionVoteTally(questionId, 0, 0));
+                                    pageVotes += tally.getTotalVotes();
+                                    tallies.add(tally);
+                                }
+
+                                boolean last = questionIds.size() < pageSize;
+                                VoteTallyCheckpoint next = advance(checkpoint,
+                                        questionIds.get(questionIds.size() - 1), questionIds.size(), pageVotes, last);
+                                return new TallyPage(tallies, next, last);
+                            });
+                });
+    }
+
+    private static VoteTallyCheckpoint advance(VoteTallyCheckpoint from, String lastQuestionId,
+                                               long questions, long votes, boolean completed) {
+        VoteTallyCheckpoint next = new VoteTallyCheckpoint(from.getJobId());
+        next.setStartedAt(from.getStartedAt());
+        next.setLastQuestionId(lastQuestionId != null ? lastQuestionId : from.getLastQuestionId());
+        next.setQuestionsProcessed(from.getQuestionsProcessed() + questions);
+        next.setTotalVotes(from.getTotalVotes() + votes);
+        next.setCompleted(completed);
+        return next;
+    }
+
+    private Mono<Map<String, QuestionVoteTally>> aggregateVotes(List<String> questionIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                match(where("questionId").in(questionIds)),
+                group("questionId")
+                        .sum("votes").as("totalVotes")
+                        .count().as("answerCount")
+        );
+
+        return reactiveMongoTemplate.aggregate(aggregation, "answers", QuestionVoteTally.class)
+                .collectMap(QuestionVoteTally::getQuestionId, Function.identity());
+    }
+
+    private record TallyPage(List<QuestionVoteTally> tallies, VoteTallyCheckpoint checkpoint, boolean last) {
+    }
 }
@@ -0,0 +1,23 @@
+package com.forum.stats;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Runtime counters of one in-process buffer, cache or index.
+ * StatsController serves every provider bean at /api/stats/{statsName},
+ * so a new component only has to implement this interface.
+ */
+public interface StatsProvider {
+
+    /** Path segment under /api/stats. */
+    String statsName();
+
+    Map<String, Object> stats();
+
+    /** Override when part of the counters needs a database round trip. */
+    default Mono<Map<String, Object>> statsAsync() {
+        return Mono.fromSupplier(this::stats);
+    }
+}
@@ -0,0 +1,62 @@
+package com.forum.tag;
+
+import com.forum.model.CursorPage;
+import com.forum.model.Question;
+import com.forum.model.TagCount;
+import com.forum.service.KeysetPager;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RestController
+@RequestMapping("/api/tags")
+public class TagController {
+
+    private final TagStatsService tagStatsService;
+    private final KeysetPager keysetPager;
+
+    public TagController(TagStatsService tagStatsService, KeysetPager keysetPager) {
+        this.tagStatsService = tagStatsService;
+        this.keysetPager = keysetPager;
+    }
+
+    // sort: popular (question count) | active (recent activity)
+    @GetMapping
+    public Mono<List<TagCount>> top(@RequestParam(defaultValue = "popular") String sort,
+                                    @RequestParam(defaultValue = "50") int limit) {
+        TagStatsService.Sort tagSort;
+        try {
+            tagSort = TagStatsService.Sort.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + sort);
+        }
+        if (limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit");
+        }
+        return Mono.just(tagStatsService.top(tagSort, Math.min(limit, 500)));
+    }
+
+    @GetMapping("/{tag}")
+    public Mono<TagCount> get(@PathVariable String tag) {
+        return Mono.just(tagStatsService.get(tag));
+    }
+
+    // Newest first, served by the multikey tags_createdAt_id index
+    @GetMapping("/{tag}/questions")
+    public Mono<CursorPage<Question>> questions(@PathVariable String tag,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        return keysetPager.page(where("tags").is(tag), "createdAt", cursor, limit,
+                Question.class, Question::getCreatedAt, Question::getId);
+    }
+}
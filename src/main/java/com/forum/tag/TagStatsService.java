@@ -0,0 +1,284 @@
+package com.forum.tag;
+
+import com.forum.event.ForumEvent;
+import com.forum.index.QuestionChangeListener;
+import com.forum.model.Question;
+import com.forum.model.TagCount;
+import com.forum.stats.StatsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-tag question counts and recent activity, kept in memory.
+ *
+ * The tags of every question are remembered so that an update can apply the
+ * diff between old and new tags, a delete can decrement them, and answer
+ * events (which carry only the question id) can be attributed to tags.
+ *
+ * Recent activity counts question creates, edits and answers per tag over the
+ * activity window, in a ring of buckets; at startup each question contributes
+ * one activity if its lastActivityAt falls inside the window.
+ */
+@Component
+public class TagStatsService implements QuestionChangeListener, StatsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(TagStatsService.class);
+
+    public enum Sort { POPULAR, ACTIVE }
+
+    private final long bucketMillis;
+    private final int bucketCount;
+
+    private final ConcurrentHashMap<String, TagStats> tags = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> tagsByQuestion = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    private final AtomicLong activityRecorded = new AtomicLong(0);
+
+    public TagStatsService(@Value("${forum.tags.activityWindow:7d}") Duration activityWindow,
+                           @Value("${forum.tags.activityBuckets:28}") int activityBuckets) {
+        this.bucketCount = activityBuckets;
+        this.bucketMillis = Math.max(1, activityWindow.toMillis() / activityBuckets);
+    }
+
+    /**
+     * The top tags by question count (POPULAR) or recent activity (ACTIVE).
+     */
+    public List<TagCount> top(Sort sort, int limit) {
+        long now = System.currentTimeMillis();
+        ToLongFunction<TagCount> key = sort == Sort.ACTIVE ? TagCount::getRecentActivity : TagCount::getCount;
+        Comparator<TagCount> order = Comparator.comparingLong(key).thenComparing(TagCount::getTag,
+                Comparator.reverseOrder());
+
+        PriorityQueue<TagCount> heap = new PriorityQueue<>(limit + 1, order);
+        for (Map.Entry<String, TagStats> entry : tags.entrySet()) {
+            TagCount count = entry.getValue().snapshot(entry.getKey(), now);
+            if (count.getCount() == 0) {
+                continue;
+            }
+            heap.add(count);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<TagCount> ranked = new ArrayList<>(heap);
+        ranked.sort(order.reversed());
+        return ranked;
+    }
+
+    public TagCount get(String tag) {
+        TagStats stats = tags.get(tag);
+        return stats != null ? stats.snapshot(tag, System.currentTimeMillis()) : new TagCount(tag, 0, 0);
+    }
+
+    /**
+     * Tag counts within a result set, most frequent first. Questions not yet
+     * seen by this service are ignored.
+     */
+    public List<TagCount> facets(Collection<String> questionIds, int limit) {
+        Map<String, Long> counts = new HashMap<>();
+        for (String questionId : questionIds) {
+            Set<String> questionTags = tagsByQuestion.get(questionId);
+            if (questionTags != null) {
+                for (String tag : questionTags) {
+                    counts.merge(tag, 1L, Long::sum);
+                }
+            }
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new TagCount(entry.getKey(), entry.getValue(), 0))
+                .toList();
+    }
+
+    // --- QuestionChangeListener ---
+
+    @Override
+    public void onQuestionLoaded(Question question) {
+        apply(question);
+        Instant lastActivity = question.getLastActivityAt();
+        if (lastActivity != null) {
+            recordActivity(tagsByQuestion.getOrDefault(question.getId(), Set.of()), lastActivity.toEpochMilli());
+        }
+    }
+
+    @Override
+    public void onLoadComplete() {
+        ready = true;
+        log.info("Tag stats ready: tags={}, questions={}", tags.size(), tagsByQuestion.size());
+    }
+
+    @Override
+    public void onQuestionSaved(Question previous, Question current) {
+        Set<String> currentTags = apply(current);
+        recordActivity(currentTags, System.currentTimeMillis());
+    }
+
+    @Override
+    public void onQuestionDeleted(Question question) {
+        Set<String> removed = tagsByQuestion.remove(question.getId());
+        if (removed != null) {
+            for (String tag : removed) {
+                adjustQuestions(tag, -1);
+            }
+        }
+    }
+
+    @EventListener
+    public void onForumEvent(ForumEvent event) {
+        if (event.getEventType() == ForumEvent.EventType.ANSWER_CREATED && event.getQuestionId() != null) {
+            Set<String> questionTags = tagsByQuestion.get(event.getQuestionId());
+            if (questionTags != null) {
+                recordActivity(questionTags, System.currentTimeMillis());
+            }
+        }
+    }
+
+    // Store the question's tags and apply the diff against what was stored before
+    private Set<String> apply(Question question) {
+        Set<String> current = tagSet(question);
+        Set<String> previous = current.isEmpty()
+                ? tagsByQuestion.remove(question.getId())
+                : tagsByQuestion.put(question.getId(), current);
+        if (previous == null) {
+            previous = Set.of();
+        }
+        for (String tag : previous) {
+            if (!current.contains(tag)) {
+                adjustQuestions(tag, -1);
+            }
+        }
+        for (String tag : current) {
+            if (!previous.contains(tag)) {
+                adjustQuestions(tag, 1);
+            }
+        }
+        return current;
+    }
+
+    private void adjustQuestions(String tag, int delta) {
+        tags.compute(tag, (key, stats) -> {
+            if (stats == null) {
+                stats = new TagStats(bucketCount);
+            }
+            // Keep the entry while it still has recent activity to report
+            return stats.adjust(delta) <= 0 && !stats.hasActivity() ? null : stats;
+        });
+    }
+
+    private void recordActivity(Set<String> questionTags, long atMillis) {
+        long bucket = atMillis / bucketMillis;
+        long oldest = System.currentTimeMillis() / bucketMillis - bucketCount + 1;
+        if (bucket < oldest) {
+            return;
+        }
+        for (String tag : questionTags) {
+            TagStats stats = tags.get(tag);
+            if (stats != null) {
+                stats.record(bucket);
+                activityRecorded.incrementAndGet();
+            }
+        }
+    }
+
+    private static Set<String> tagSet(Question question) {
+        Set<String> set = new LinkedHashSet<>();
+        if (question.getTags() != null) {
+            for (String tag : question.getTags()) {
+                if (tag != null && !tag.isBlank()) {
+                    set.add(tag);
+                }
+            }
+        }
+        return Set.copyOf(set);
+    }
+
+    @Override
+    public String statsName() {
+        return "tags";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("tags", tags.size());
+        stats.put("trackedQuestions", tagsByQuestion.size());
+        stats.put("activityRecorded", activityRecorded.get());
+        stats.put("activityWindowMs", bucketMillis * bucketCount);
+        return stats;
+    }
+
+    /**
+     * Question count plus a ring of activity buckets indexed by bucket number
+     * modulo the ring size; a slot is reset when a newer bucket claims it.
+     */
+    private final class TagStats {
+
+        private long questions;
+        private final long[] bucketIds;
+        private final int[] bucketCounts;
+
+        private TagStats(int buckets) {
+            this.bucketIds = new long[buckets];
+            this.bucketCounts = new int[buckets];
+        }
+
+        private synchronized long adjust(int delta) {
+            questions += delta;
+            return questions;
+        }
+
+        private synchronized void record(long bucket) {
+            int slot = (int) (bucket % bucketIds.length);
+            if (bucketIds[slot] != bucket) {
+                if (bucketIds[slot] > bucket) {
+                    return; // older than the window kept in this slot
+                }
+                bucketIds[slot] = bucket;
+                bucketCounts[slot] = 0;
+            }
+            bucketCounts[slot]++;
+        }
+
+        private synchronized long recent(long now) {
+            long oldest = now / bucketMillis - bucketIds.length + 1;
+            long sum = 0;
+            for (int i = 0; i < bucketIds.length; i++) {
+                if (bucketIds[i] >= oldest) {
+                    sum += bucketCounts[i];
+                }
+            }
+            return sum;
+        }
+
+        private boolean hasActivity() {
+            return recent(System.currentTimeMillis()) > 0;
+        }
+
+        private synchronized TagCount snapshot(String tag, long now) {
+            return new TagCount(tag, Math.max(0, questions), recent(now));
+        }
+    }
+}
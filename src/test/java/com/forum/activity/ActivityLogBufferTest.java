@@ -0,0 +1,96 @@
+package com.forum.activity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityLogBufferTest {
+
+    private ActivityLogRepository repository;
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ActivityLogRepository.class);
+    }
+
+    // Each insert completes after the given delay and records its size and overlap
+    private void insertsTake(Duration delay) {
+        when(repository.insert(anyIterable())).thenAnswer(invocation -> {
+            List<ActivityLog> batch = new ArrayList<>();
+            Iterable<ActivityLog> entries = invocation.getArgument(0);
+            entries.forEach(batch::add);
+            return Flux.fromIterable(batch)
+                    .delaySubscription(delay)
+                    .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                    .doOnTerminate(() -> {
+                        inFlight.decrementAndGet();
+                        batchSizes.add(batch.size());
+                    });
+        });
+    }
+
+    private static ActivityLog entry() {
+        ActivityLog entry = new ActivityLog();
+        entry.setActivityType(ActivityType.QUESTION_CREATED);
+        return entry;
+    }
+
+    @Test
+    void scheduledFlushWritesEverythingInBoundedBatches() {
+        insertsTake(Duration.ZERO);
+        ActivityLogBuffer buffer = new ActivityLogBuffer(repository, 100, 3, ActivityLogBuffer.OverflowPolicy.DROP, 1);
+
+        for (int i = 0; i < 7; i++) {
+            buffer.offer(entry());
+        }
+        buffer.flushOnShutdown();
+
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(7);
+        assertThat(batchSizes).allMatch(size -> size <= 3);
+        assertThat(buffer.stats()).containsEntry("flushed", 7L).containsEntry("pending", 0);
+    }
+
+    @Test
+    void dropPolicyRejectsEntriesOnceFull() {
+        insertsTake(Duration.ZERO);
+        ActivityLogBuffer buffer = new ActivityLogBuffer(repository, 2, 100, ActivityLogBuffer.OverflowPolicy.DROP, 1);
+
+        assertThat(buffer.offer(entry())).isTrue();
+        assertThat(buffer.offer(entry())).isTrue();
+        assertThat(buffer.offer(entry())).isFalse();
+        assertThat(buffer.stats()).containsEntry("dropped", 1L).containsEntry("queued", 2L);
+    }
+
+    @Test
+    void shutdownFlushWaitsForDrainInFlight() {
+        insertsTake(Duration.ofMillis(200));
+        ActivityLogBuffer buffer = new ActivityLogBuffer(repository, 100, 3, ActivityLogBuffer.OverflowPolicy.DROP, 1);
+
+        // Fills one batch, which starts a background drain
+        for (int i = 0; i < 3; i++) {
+            buffer.offer(entry());
+        }
+        buffer.offer(entry());
+        buffer.offer(entry());
+
+        buffer.flushOnShutdown();
+
+        assertThat(maxInFlight.get()).isEqualTo(1);
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(5);
+        assertThat(buffer.stats()).containsEntry("pending", 0);
+    }
+}
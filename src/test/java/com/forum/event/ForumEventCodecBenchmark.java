@@ -0,0 +1,86 @@
+package com.forum.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * JSON vs binary ForumEvent encoding: bytes per event and encode/decode ns/op.
+ * Run with ./gradlew codecBenchmark. A plain timing loop with warmup, not JMH,
+ * so compare the two paths on the same machine rather than reading absolutes.
+ */
+public final class ForumEventCodecBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static volatile Object sink;
+
+    private ForumEventCodecBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        ForumEvent voted = new ForumEvent(ForumEvent.EventType.ANSWER_VOTED);
+        voted.setQuestionId("65f1c0a2b3d4e5f6a7b8c9d0");
+        voted.setAnswerId("65f1c0a2b3d4e5f6a7b8c9d1");
+        voted.setAuthorId("65f1c0a2b3d4e5f6a7b8c9d2");
+        voted.setTitle("How do I size the G1 young generation for a latency-sensitive service?");
+        voted.setTimestamp(Instant.now());
+        voted.setVoteDelta(1);
+
+        ForumEvent created = new ForumEvent(ForumEvent.EventType.QUESTION_CREATED);
+        created.setQuestionId("65f1c0a2b3d4e5f6a7b8c9d0");
+        created.setAuthorId("65f1c0a2b3d4e5f6a7b8c9d2");
+        created.setTitle(voted.getTitle());
+        created.setBody("We run a Spring WebFlux service on a 4 GB heap. ".repeat(20));
+        created.setTimestamp(Instant.now());
+
+        System.out.printf("%-18s %-6s %8s %12s %12s%n", "event", "format", "bytes", "encode ns", "decode ns");
+        for (ForumEvent event : new ForumEvent[] {voted, created}) {
+            byte[] json = objectMapper.writeValueAsBytes(event);
+            byte[] binary = ForumEventCodec.encode(event);
+
+            report(event, "json", json.length,
+                    time(() -> uncheckedJson(objectMapper, event)),
+                    time(() -> uncheckedRead(objectMapper, json)));
+            report(event, "binary", binary.length,
+                    time(() -> ForumEventCodec.encode(event)),
+                    time(() -> ForumEventCodec.decode(binary)));
+        }
+    }
+
+    private static double time(Supplier<Object> op) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink = op.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = op.get();
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+
+    private static void report(ForumEvent event, String format, int bytes, double encodeNs, double decodeNs) {
+        System.out.printf("%-18s %-6s %8d %12.1f %12.1f%n",
+                event.getEventType(), format, bytes, encodeNs, decodeNs);
+    }
+
+    private static Object uncheckedJson(ObjectMapper objectMapper, ForumEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object uncheckedRead(ObjectMapper objectMapper, byte[] json) {
+        try {
+            return objectMapper.readValue(json, ForumEvent.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
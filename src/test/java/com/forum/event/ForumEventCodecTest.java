@@ -0,0 +1,78 @@
+package com.forum.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForumEventCodecTest {
+
+    private static ForumEvent voted() {
+        ForumEvent event = new ForumEvent(ForumEvent.EventType.ANSWER_VOTED);
+        event.setQuestionId("65f1c0a2b3d4e5f6a7b8c9d0");
+        event.setAnswerId("65f1c0a2b3d4e5f6a7b8c9d1");
+        event.setAuthorId("user-1");
+        event.setTitle("How do I tune G1?");
+        event.setTimestamp(Instant.ofEpochMilli(1_700_000_000_123L));
+        event.setVoteDelta(-1);
+        return event;
+    }
+
+    @Test
+    void roundTripsAllFields() {
+        ForumEvent event = voted();
+        event.setRecipientId("user-2");
+        event.setNotificationId("n-1");
+        event.setNotificationType("ANSWER_VOTED");
+
+        ForumEvent decoded = ForumEventCodec.decode(ForumEventCodec.encode(event));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void ignoresFieldsAppendedByNewerProducer() {
+        ForumEvent event = voted();
+        byte[] payload = ForumEventCodec.encode(event);
+        ByteArrayOutputStream newer = new ByteArrayOutputStream();
+        newer.write(ForumEventCodec.CURRENT_VERSION + 5);
+        newer.write(payload, 1, payload.length - 1);
+        // An appended string field: length 3 + 1, then "xyz"
+        newer.write(4);
+        newer.writeBytes("xyz".getBytes());
+
+        ForumEvent decoded = ForumEventCodec.decode(newer.toByteArray());
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void decodesVersionOnePayloadWithLaterFieldsNull() {
+        ForumEvent event = voted();
+        event.setVoteDelta(null);
+        event.setEventId(null);
+        byte[] full = ForumEventCodec.encode(event);
+        // v1 ends after the timestamp: drop the three null strings, the null delta and the null eventId
+        byte[] v1 = Arrays.copyOf(full, full.length - 5);
+        v1[0] = 1;
+
+        ForumEvent decoded = ForumEventCodec.decode(v1);
+
+        assertThat(decoded.getEventType()).isEqualTo(ForumEvent.EventType.ANSWER_VOTED);
+        assertThat(decoded.getTitle()).isEqualTo("How do I tune G1?");
+        assertThat(decoded.getRecipientId()).isNull();
+        assertThat(decoded.getVoteDelta()).isNull();
+        assertThat(decoded.getEventId()).isNull();
+    }
+
+    @Test
+    void unknownTypeDecodesToNull() {
+        byte[] payload = ForumEventCodec.encode(voted());
+        payload[1] = 120; // ordinal far past the last constant, still a one-byte varint
+
+        assertThat(ForumEventCodec.decode(payload)).isNull();
+    }
+}
@@ -0,0 +1,115 @@
+package com.forum.index;
+
+import com.forum.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionChangeDispatcherTest {
+
+    // Keeps the title last seen per question id
+    private static class RecordingListener implements QuestionChangeListener {
+        final Map<String, String> titles = new HashMap<>();
+        boolean complete;
+
+        @Override
+        public void onQuestionLoaded(Question question) {
+            titles.put(question.getId(), question.getTitle());
+        }
+
+        @Override
+        public void onLoadComplete() {
+            complete = true;
+        }
+
+        @Override
+        public void onQuestionSaved(Question previous, Question current) {
+            titles.put(current.getId(), current.getTitle());
+        }
+
+        @Override
+        public void onQuestionDeleted(Question question) {
+            titles.remove(question.getId());
+        }
+    }
+
+    private static Question question(String id, String title, long version) {
+        Question question = new Question();
+        question.setId(id);
+        question.setTitle(title);
+        question.setVersion(version);
+        return question;
+    }
+
+    @Test
+    void staleSnapshotDoesNotOverwriteLiveEdit() {
+        RecordingListener listener = new RecordingListener();
+        QuestionChangeDispatcher dispatcher = new QuestionChangeDispatcher(List.of(listener));
+
+        Question before = question("q1", "old", 0);
+        dispatcher.saved(before, question("q1", "new", 1));
+        dispatcher.loaded(before);
+        dispatcher.loadComplete();
+
+        assertThat(listener.titles).containsEntry("q1", "new");
+        assertThat(listener.complete).isTrue();
+        assertThat(dispatcher.stats()).containsEntry("snapshotsSkipped", 1L);
+    }
+
+    @Test
+    void snapshotReadBeforeDeleteIsNotResurrected() {
+        RecordingListener listener = new RecordingListener();
+        QuestionChangeDispatcher dispatcher = new QuestionChangeDispatcher(List.of(listener));
+
+        Question question = question("q1", "title", 3);
+        dispatcher.deleted(question);
+        dispatcher.loaded(question);
+
+        assertThat(listener.titles).doesNotContainKey("q1");
+    }
+
+    @Test
+    void newerSnapshotIsApplied() {
+        RecordingListener listener = new RecordingListener();
+        QuestionChangeDispatcher dispatcher = new QuestionChangeDispatcher(List.of(listener));
+
+        dispatcher.saved(null, question("q1", "first", 0));
+        dispatcher.loaded(question("q1", "edited", 2));
+
+        assertThat(listener.titles).containsEntry("q1", "edited");
+    }
+
+    @Test
+    void failingListenerDoesNotStopOthers() {
+        List<String> failingCalls = new ArrayList<>();
+        QuestionChangeListener failing = new QuestionChangeListener() {
+            @Override
+            public void onQuestionLoaded(Question question) {
+                failingCalls.add(question.getId());
+                throw new IllegalStateException("boom");
+            }
+
+            @Override
+            public void onQuestionSaved(Question previous, Question current) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        RecordingListener listener = new RecordingListener();
+        QuestionChangeDispatcher dispatcher = new QuestionChangeDispatcher(List.of(failing, listener));
+
+        dispatcher.loaded(question("q1", "a", 0));
+        dispatcher.loaded(question("q2", "b", 0));
+        dispatcher.loadComplete();
+        dispatcher.saved(null, question("q3", "c", 0));
+
+        assertThat(failingCalls).containsExactly("q1", "q2");
+        assertThat(listener.titles).containsOnlyKeys("q1", "q2", "q3");
+        assertThat(listener.complete).isTrue();
+        assertThat(dispatcher.stats()).containsEntry("listenerFailures", 3L);
+    }
+}
@@ -0,0 +1,48 @@
+package com.forum.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.forum.event.ForumEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForumEventSerdeTest {
+
+    private final ForumEventSerde serde = new ForumEventSerde(new ObjectMapper().findAndRegisterModules(), "json");
+
+    private static byte[] json(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void jsonWithUnknownFieldsDecodes() {
+        ForumEvent event = serde.decode(
+                json("{\"eventType\":\"ANSWER_CREATED\",\"questionId\":\"q1\",\"addedLater\":42}"),
+                new RecordHeaders());
+
+        assertThat(event.getEventType()).isEqualTo(ForumEvent.EventType.ANSWER_CREATED);
+        assertThat(event.getQuestionId()).isEqualTo("q1");
+    }
+
+    @Test
+    void jsonWithUnknownTypeDecodesToNull() {
+        assertThat(serde.decode(json("{\"eventType\":\"ADDED_LATER\",\"questionId\":\"q1\"}"), new RecordHeaders()))
+                .isNull();
+    }
+
+    @Test
+    void binaryHeaderSelectsCodec() {
+        ForumEventSerde binary = new ForumEventSerde(new ObjectMapper().findAndRegisterModules(), "binary");
+        ForumEvent event = new ForumEvent(ForumEvent.EventType.QUESTION_DELETED);
+        event.setQuestionId("q1");
+
+        var record = binary.toRecord("topic", "q1", binary.encode(event));
+        ForumEvent decoded = serde.decode(record.value(), record.headers());
+
+        assertThat(decoded.getEventType()).isEqualTo(ForumEvent.EventType.QUESTION_DELETED);
+        assertThat(decoded.getQuestionId()).isEqualTo("q1");
+    }
+}
@@ -0,0 +1,140 @@
+package com.forum.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.forum.service.QuestionProjections;
+
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Full Question vs QuestionSummary list responses: bytes per response and
+ * Jackson serialization time. Run with ./gradlew summaryBenchmark.
+ *
+ * Generates a seeded 100k-question dataset (bodies 200 to 6000 characters,
+ * log-uniform) and builds each summary the way QuestionProjections does, from
+ * the first EXCERPT_LENGTH code points of the body. Measures the unpaged
+ * GET /api/questions body and a 20-item search page. Mongo and network time
+ * are not included, so compare the two views rather than reading absolutes.
+ */
+public final class QuestionSummaryBenchmark {
+
+    private static final int QUESTIONS = 100_000;
+    private static final int PAGE = 20;
+    private static final String[] WORDS = ("reactive mongo kafka index latency heap thread pool cache query "
+            + "projection cursor batch stream backpressure scheduler timeout retry lease partition").split(" ");
+
+    private static volatile long sink;
+
+    private QuestionSummaryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ObjectWriter writer = new ObjectMapper().findAndRegisterModules().writer();
+
+        List<Question> questions = new ArrayList<>(QUESTIONS);
+        List<QuestionSummary> summaries = new ArrayList<>(QUESTIONS);
+        for (int i = 0; i < QUESTIONS; i++) {
+            Question question = question(i);
+            questions.add(question);
+            summaries.add(summary(question));
+        }
+
+        System.out.printf("%-10s %-8s %12s %11s %10s %10s%n", "response", "view", "bytes", "bytes/item",
+                "p50 us", "p99 us");
+        report(writer, "list-100k", "full", questions, 3, 20);
+        report(writer, "list-100k", "summary", summaries, 3, 20);
+        report(writer, "page-20", "full", questions.subList(0, PAGE), 20_000, 50_000);
+        report(writer, "page-20", "summary", summaries.subList(0, PAGE), 20_000, 50_000);
+    }
+
+    private static void report(ObjectWriter writer, String response, String view, List<?> items,
+                               int warmup, int samples) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            serialize(writer, items);
+        }
+        long bytes = 0;
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            bytes = serialize(writer, items);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-10s %-8s %12d %11d %10.1f %10.1f%n", response, view, bytes, bytes / items.size(),
+                nanos[samples / 2] / 1000.0, nanos[Math.min(samples - 1, (int) (samples * 0.99))] / 1000.0);
+    }
+
+    private static long serialize(ObjectWriter writer, List<?> items) throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        writer.writeValue(out, items);
+        sink = out.count;
+        return out.count;
+    }
+
+    private static Question question(int i) {
+        Random random = new Random(i);
+        Question question = new Question();
+        question.setId(String.format("65f1c0a2b3d4e5f6%08x", i));
+        question.setTitle("How do I tune " + word(random) + " " + word(random) + " for " + word(random) + "?");
+        int length = (int) Math.round(200 * Math.pow(30, random.nextDouble()));
+        StringBuilder body = new StringBuilder(length + 16);
+        while (body.length() < length) {
+            body.append(word(random)).append(random.nextInt(12) == 0 ? ".\n" : " ");
+        }
+        question.setBody(body.toString());
+        question.setTags(List.of(word(random), word(random)));
+        question.setAuthorId(String.format("65f1c0a2b3d4e5f7%08x", random.nextInt(5_000)));
+        question.setVotes(random.nextInt(50));
+        question.setAnswerCount(random.nextInt(8));
+        question.setTotalAnswerVotes(random.nextInt(100));
+        Instant createdAt = Instant.parse("2026-01-01T00:00:00Z").plusSeconds(i * 60L);
+        question.setCreatedAt(createdAt);
+        question.setUpdatedAt(createdAt);
+        question.setLastActivityAt(createdAt);
+        return question;
+    }
+
+    // Same result as the $substrCP projection in QuestionProjections
+    private static QuestionSummary summary(Question question) {
+        String body = question.getBody() != null ? question.getBody() : "";
+        int end = body.offsetByCodePoints(0, Math.min(QuestionProjections.EXCERPT_LENGTH,
+                body.codePointCount(0, body.length())));
+        QuestionSummary summary = new QuestionSummary();
+        summary.setId(question.getId());
+        summary.setTitle(question.getTitle());
+        summary.setExcerpt(body.substring(0, end));
+        summary.setTags(question.getTags());
+        summary.setAuthorId(question.getAuthorId());
+        summary.setVotes(question.getVotes());
+        summary.setAnswerCount(question.getAnswerCount());
+        summary.setAcceptedAnswerId(question.getAcceptedAnswerId());
+        summary.setTotalAnswerVotes(question.getTotalAnswerVotes());
+        summary.setCreatedAt(question.getCreatedAt());
+        summary.setUpdatedAt(question.getUpdatedAt());
+        summary.setLastActivityAt(question.getLastActivityAt());
+        return summary;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.forum.notification;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationRateLimiterTest {
+
+    private static Notification saved(String questionId, Instant createdAt) {
+        Notification notification = new Notification();
+        notification.setQuestionId(questionId);
+        notification.setCreatedAt(createdAt);
+        return notification;
+    }
+
+    private static NotificationRateLimiter limiter(NotificationRepository repository, int maxQuestions) {
+        return new NotificationRateLimiter(repository, 3, Duration.ofHours(24), maxQuestions);
+    }
+
+    @Test
+    void slidingWindowAllowsThreePerQuestion() {
+        NotificationRateLimiter limiter = limiter(mock(NotificationRepository.class), 100);
+        Instant start = Instant.now();
+
+        assertThat(limiter.tryAcquire("q1", start)).isTrue();
+        assertThat(limiter.tryAcquire("q1", start.plusSeconds(1))).isTrue();
+        assertThat(limiter.tryAcquire("q1", start.plusSeconds(2))).isTrue();
+        assertThat(limiter.tryAcquire("q1", start.plusSeconds(3))).isFalse();
+        assertThat(limiter.tryAcquire("q2", start.plusSeconds(3))).isTrue();
+
+        // The first slot leaves the window after 24h
+        assertThat(limiter.tryAcquire("q1", start.plus(Duration.ofHours(24)).plusMillis(1))).isTrue();
+    }
+
+    @Test
+    void releaseGivesTheSlotBack() {
+        NotificationRateLimiter limiter = limiter(mock(NotificationRepository.class), 100);
+        Instant at = Instant.now();
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("q1", at.plusMillis(i));
+        }
+        limiter.release("q1", at.plusMillis(2));
+
+        assertThat(limiter.currentCount("q1")).isEqualTo(2);
+        assertThat(limiter.tryAcquire("q1", at.plusMillis(3))).isTrue();
+    }
+
+    @Test
+    void readyOnlyAfterRebuildAndRebuiltWindowsCount() {
+        NotificationRepository repository = mock(NotificationRepository.class);
+        Instant recent = Instant.now().minusSeconds(60);
+        Sinks.Many<Notification> rows = Sinks.many().unicast().onBackpressureBuffer();
+        when(repository.findByCreatedAtBetween(any(), any())).thenReturn(rows.asFlux());
+
+        NotificationRateLimiter limiter = limiter(repository, 100);
+        AtomicBoolean ready = new AtomicBoolean(false);
+        limiter.whenReady().subscribe(null, null, () -> ready.set(true));
+
+        limiter.rebuildOnStartup();
+        for (int i = 0; i < 3; i++) {
+            rows.tryEmitNext(saved("q1", recent.plusMillis(i)));
+        }
+        assertThat(ready).isFalse();
+
+        rows.tryEmitComplete();
+        assertThat(ready).isTrue();
+        assertThat(limiter.tryAcquire("q1", Instant.now())).isFalse();
+    }
+
+    @Test
+    void trackedQuestionsStayBounded() {
+        NotificationRepository repository = mock(NotificationRepository.class);
+        when(repository.findByCreatedAtBetween(any(), any())).thenReturn(Flux.empty());
+        NotificationRateLimiter limiter = limiter(repository, 100);
+        Instant at = Instant.now();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(limiter.tryAcquire("q" + i, at)).isTrue();
+        }
+        limiter.sweepIdle();
+
+        assertThat((Long) limiter.stats().get("trackedQuestions")).isLessThanOrEqualTo(100L);
+    }
+}
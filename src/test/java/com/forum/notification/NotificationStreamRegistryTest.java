@@ -0,0 +1,54 @@
+package com.forum.notification;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationStreamRegistryTest {
+
+    @Test
+    void concurrentPushesToOneUserAreAllDelivered() throws Exception {
+        NotificationStreamRegistry registry = new NotificationStreamRegistry(Duration.ofHours(1));
+        AtomicInteger received = new AtomicInteger();
+        Disposable connection = registry.stream("u1")
+                .filter(event -> event.data() != null)
+                .subscribe(event -> received.incrementAndGet());
+
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> pushes = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            pushes.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    Notification notification = new Notification();
+                    notification.setRecipientId("u1");
+                    registry.publish(notification);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> push : pushes) {
+            push.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        connection.dispose();
+
+        assertThat(received.get()).isEqualTo(threads * perThread);
+        assertThat(registry.stats()).containsEntry("failedEmits", 0L);
+    }
+}
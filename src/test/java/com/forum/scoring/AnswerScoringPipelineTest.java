@@ -0,0 +1,176 @@
+package com.forum.scoring;
+
+import com.forum.model.Answer;
+import com.forum.model.Question;
+import com.forum.repository.AnswerRepository;
+import com.forum.service.QuestionCache;
+import com.forum.service.QuestionStatsService;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnswerScoringPipelineTest {
+
+    // Fixed score, counts how many answers it was asked to score
+    private static class CountingModel implements AnswerQualityModel {
+        final AtomicInteger scored = new AtomicInteger();
+
+        @Override
+        public String name() {
+            return "counting";
+        }
+
+        @Override
+        public Mono<List<Result>> score(List<Request> batch) {
+            scored.addAndGet(batch.size());
+            List<Result> results = new ArrayList<>();
+            batch.forEach(request -> results.add(new Result(7, "ok")));
+            return Mono.just(results);
+        }
+    }
+
+    private final CountingModel model = new CountingModel();
+    private final Map<String, Answer> answers = new HashMap<>();
+    private AnswerRepository answerRepository;
+    private QuestionCache questionCache;
+    private QuestionStatsService questionStatsService;
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        answerRepository = mock(AnswerRepository.class);
+        questionCache = mock(QuestionCache.class);
+        questionStatsService = mock(QuestionStatsService.class);
+        reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+
+        when(answerRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<String> ids = invocation.getArgument(0);
+            List<Answer> found = new ArrayList<>();
+            ids.forEach(id -> {
+                if (answers.containsKey(id)) {
+                    found.add(answers.get(id));
+                }
+            });
+            return Flux.fromIterable(found);
+        });
+        Question question = new Question();
+        question.setId("q1");
+        question.setTitle("Sorting answers");
+        question.setBody("How do I sort answers?");
+        when(questionCache.get(anyString())).thenReturn(Mono.just(question));
+        when(questionStatsService.answerScored(anyString())).thenReturn(Mono.empty());
+        when(reactiveMongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Answer.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(reactiveMongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Answer.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+    }
+
+    private AnswerScoringPipeline pipeline(boolean enabled, int queueCapacity, int batchSize, int backfillBatch) {
+        return new AnswerScoringPipeline(model, answerRepository, questionCache, questionStatsService,
+                reactiveMongoTemplate, enabled, queueCapacity, batchSize, 1, Duration.ofSeconds(5), 100,
+                backfillBatch);
+    }
+
+    private void answer(String id, String body) {
+        Answer answer = new Answer();
+        answer.setId(id);
+        answer.setQuestionId("q1");
+        answer.setBody(body);
+        answers.put(id, answer);
+    }
+
+    @Test
+    void unchangedContentIsScoredOnceButWrittenEachTime() {
+        answer("a1", "Sort by createdAt in the query.");
+        AnswerScoringPipeline pipeline = pipeline(true, 100, 1, 500);
+
+        assertThat(pipeline.submit("a1")).isTrue();
+        assertThat(pipeline.submit("a1")).isTrue();
+
+        assertThat(model.scored.get()).isEqualTo(1);
+        verify(reactiveMongoTemplate, times(2))
+                .updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Answer.class));
+        verify(questionStatsService, times(2)).answerScored("q1");
+        assertThat(pipeline.stats())
+                .containsEntry("scored", 2L)
+                .containsEntry("cacheHits", 1L);
+    }
+
+    @Test
+    void editedContentIsScoredAgain() {
+        answer("a1", "Sort by createdAt in the query.");
+        AnswerScoringPipeline pipeline = pipeline(true, 100, 1, 500);
+
+        pipeline.submit("a1");
+        answer("a1", "Sort by createdAt in the query, backed by an index.");
+        pipeline.submit("a1");
+
+        assertThat(model.scored.get()).isEqualTo(2);
+    }
+
+    @Test
+    void disabledOrFullQueueRejectsSubmit() {
+        assertThat(pipeline(false, 100, 1, 500).submit("a1")).isFalse();
+
+        AnswerScoringPipeline full = pipeline(true, 1, 2, 500);
+        assertThat(full.submit("a1")).isTrue();
+        assertThat(full.submit("a2")).isFalse();
+        assertThat(full.stats()).containsEntry("dropped", 1L);
+        assertThat(model.scored.get()).isZero();
+    }
+
+    @Test
+    void backfillQueuesUnscoredAnswers() {
+        answer("a1", "first");
+        answer("a2", "second");
+        when(reactiveMongoTemplate.find(any(Query.class), eq(Answer.class)))
+                .thenReturn(Flux.just(answers.get("a1"), answers.get("a2")));
+        AnswerScoringPipeline pipeline = pipeline(true, 100, 16, 2);
+
+        pipeline.backfill();
+
+        verify(reactiveMongoTemplate).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Answer.class));
+        assertThat(pipeline.stats())
+                .containsEntry("backfilled", 2L)
+                .containsEntry("queueSize", 2);
+
+        // A full page leaves the cursor after the last id
+        pipeline.backfill();
+        verify(reactiveMongoTemplate).find(
+                argThat((Query query) -> query.getQueryObject().containsKey("_id")),
+                eq(Answer.class));
+    }
+
+    @Test
+    void disabledBackfillStillRanksLegacyAnswers() {
+        AnswerScoringPipeline pipeline = pipeline(false, 100, 16, 500);
+
+        pipeline.backfill();
+
+        verify(reactiveMongoTemplate).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Answer.class));
+        verify(reactiveMongoTemplate, times(0)).find(any(Query.class), eq(Answer.class));
+    }
+}
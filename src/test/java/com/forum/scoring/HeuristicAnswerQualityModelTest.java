@@ -0,0 +1,64 @@
+package com.forum.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeuristicAnswerQualityModelTest {
+
+    private final HeuristicAnswerQualityModel model = new HeuristicAnswerQualityModel();
+
+    private AnswerQualityModel.Result score(String questionTitle, String questionBody, String answerBody) {
+        return model.score(List.of(new AnswerQualityModel.Request("a1", questionTitle, questionBody, answerBody)))
+                .block()
+                .get(0);
+    }
+
+    @Test
+    void sameInputSameScore() {
+        String body = "Use a compound index on questionId and createdAt so the sort can walk the index.";
+        AnswerQualityModel.Result first = score("Sorting answers", "How do I sort answers by date?", body);
+        AnswerQualityModel.Result second = score("Sorting answers", "How do I sort answers by date?", body);
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void codeAndLinkAddPoints() {
+        String plain = "Create the index on questionId then sort the answers by createdAt in the query itself.";
+        AnswerQualityModel.Result without = score("Sorting answers", "How do I sort answers?", plain);
+        AnswerQualityModel.Result with = score("Sorting answers", "How do I sort answers?",
+                plain + "\n```\ndb.answers.createIndex({questionId: 1})\n```\nSee https://example.com/indexes");
+
+        assertThat(with.score()).isGreaterThanOrEqualTo(without.score() + 3);
+        assertThat(with.feedback()).contains("includes code", "cites a link");
+    }
+
+    @Test
+    void shortAnswerIsFlagged() {
+        AnswerQualityModel.Result result = score("Sorting answers", "How do I sort answers?", "sort it");
+
+        assertThat(result.feedback()).contains("very short");
+    }
+
+    @Test
+    void scoresAreHalfPointStepsWithinRange() {
+        StringBuilder longBody = new StringBuilder("```\ncode\n``` https://example.com ");
+        for (int i = 0; i < 500; i++) {
+            longBody.append("sorting answers index ").append(i).append(' ');
+        }
+        List<AnswerQualityModel.Result> results = model.score(List.of(
+                new AnswerQualityModel.Request("a1", "Sorting answers", "index", longBody.toString()),
+                new AnswerQualityModel.Request("a2", "Sorting answers", null, ""),
+                new AnswerQualityModel.Request("a3", "Sorting answers", "index", null)
+        )).block();
+
+        assertThat(results).hasSize(3);
+        for (AnswerQualityModel.Result result : results) {
+            assertThat(result.score()).isBetween(0.0, 10.0);
+            assertThat(result.score() * 2).isEqualTo(Math.rint(result.score() * 2));
+        }
+    }
+}
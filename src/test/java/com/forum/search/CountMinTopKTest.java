@@ -0,0 +1,56 @@
+package com.forum.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinTopKTest {
+
+    @Test
+    void heavyHittersSurviveAStreamOfRareItems() {
+        CountMinTopK sketch = new CountMinTopK(4, 2048, 10);
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            int roll = random.nextInt(100);
+            if (roll < 10) {
+                sketch.add("hot-" + (roll % 5));
+            } else {
+                sketch.add("rare-" + random.nextInt(100_000));
+            }
+        }
+
+        List<String> top = sketch.top().stream().map(Map.Entry::getKey).toList();
+        assertThat(top).hasSize(10);
+        assertThat(top.subList(0, 5)).containsExactlyInAnyOrder("hot-0", "hot-1", "hot-2", "hot-3", "hot-4");
+        assertThat(sketch.total()).isEqualTo(50_000);
+    }
+
+    @Test
+    void topIsSortedAndNeverUndercounts() {
+        CountMinTopK sketch = new CountMinTopK(4, 512, 16);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            // Roughly Zipf: small ids are far more frequent
+            String item = "q" + (int) Math.floor(Math.pow(400, random.nextDouble()));
+            sketch.add(item);
+            exact.merge(item, 1L, Long::sum);
+        }
+
+        List<Map.Entry<String, Long>> top = sketch.top();
+        assertThat(top).hasSize(16);
+        for (int i = 0; i < top.size(); i++) {
+            Map.Entry<String, Long> entry = top.get(i);
+            if (i > 0) {
+                assertThat(entry.getValue()).isLessThanOrEqualTo(top.get(i - 1).getValue());
+            }
+            assertThat(entry.getValue()).isGreaterThanOrEqualTo(exact.get(entry.getKey()));
+        }
+        assertThat(top.get(0).getKey()).isEqualTo("q1");
+    }
+}
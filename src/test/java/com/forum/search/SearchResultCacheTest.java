@@ -0,0 +1,50 @@
+package com.forum.search;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+
+    private final SearchResultCache cache = new SearchResultCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void cancelledSearchDoesNotFailIdenticalSearchesWaitingOnIt() {
+        Sinks.One<List<String>> search = Sinks.one();
+        String key = SearchResultCache.normalize("text", "reactive mongo");
+
+        Disposable cancelled = cache.get(key, "reactive mongo", search::asMono).subscribe();
+        AtomicReference<List<String>> received = new AtomicReference<>();
+        AtomicReference<Throwable> failed = new AtomicReference<>();
+        cache.get(key, "reactive mongo", search::asMono).subscribe(received::set, failed::set);
+
+        cancelled.dispose();
+        search.tryEmitValue(List.of("q1", "q2"));
+
+        assertThat(failed.get()).isNull();
+        assertThat(received.get()).containsExactly("q1", "q2");
+    }
+
+    @Test
+    void searchRunsOnSubscribe() {
+        AtomicInteger runs = new AtomicInteger();
+        String key = SearchResultCache.normalize("text", "kafka");
+
+        Mono<List<String>> pending = cache.get(key, "kafka", () -> Mono.fromSupplier(() -> {
+            runs.incrementAndGet();
+            return List.of("q1");
+        }));
+        assertThat(runs.get()).isZero();
+
+        assertThat(pending.block()).containsExactly("q1");
+        assertThat(runs.get()).isEqualTo(1);
+    }
+}
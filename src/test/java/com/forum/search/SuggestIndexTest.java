@@ -0,0 +1,57 @@
+package com.forum.search;
+
+import com.forum.model.Question;
+import com.forum.model.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestIndexTest {
+
+    private final SuggestIndex index = new SuggestIndex(true, 64);
+
+    private static Question question(String id, String title, String... tags) {
+        Question question = new Question();
+        question.setId(id);
+        question.setTitle(title);
+        question.setTags(List.of(tags));
+        return question;
+    }
+
+    private long tagWeight(String tag) {
+        return index.suggest(tag, 10).stream()
+                .filter(suggestion -> "tag".equals(suggestion.getType()) && tag.equals(suggestion.getText()))
+                .mapToLong(Suggestion::getWeight)
+                .findFirst()
+                .orElse(0);
+    }
+
+    @Test
+    void questionSavedDuringLoadIsCountedOnce() {
+        Question saved = question("q1", "Configure spring boot", "spring");
+        index.onQuestionSaved(null, saved);
+        // The startup load reads the same question again
+        index.onQuestionLoaded(saved);
+        index.onQuestionLoaded(question("q2", "Spring data paging", "spring"));
+
+        assertThat(tagWeight("spring")).isEqualTo(2);
+    }
+
+    @Test
+    void tagChangesApplyAgainstIndexedTags() {
+        index.onQuestionLoaded(question("q1", "Mongo indexes", "mongodb", "java"));
+        // previous is stale here: the diff must come from what was indexed
+        index.onQuestionSaved(question("q1", "Mongo indexes"), question("q1", "Mongo indexes", "mongodb", "kotlin"));
+
+        assertThat(tagWeight("mongodb")).isEqualTo(1);
+        assertThat(tagWeight("java")).isZero();
+        assertThat(tagWeight("kotlin")).isEqualTo(1);
+
+        index.onQuestionDeleted(question("q1", "Mongo indexes"));
+
+        assertThat(tagWeight("mongodb")).isZero();
+        assertThat(tagWeight("kotlin")).isZero();
+    }
+}
@@ -0,0 +1,75 @@
+package com.forum.service;
+
+import com.forum.model.Answer;
+import com.forum.model.Question;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires concurrent votes at a few answers against embedded Mongo and checks
+ * that no increment is lost, neither on the answers nor on the question's
+ * denormalized totalAnswerVotes.
+ */
+@SpringBootTest(properties = "forum.votes.coalesceWindowMs=20")
+class AnswerVoteEngineLoadTest {
+
+    private static final int VOTES_PER_ANSWER = 500;
+
+    @Autowired
+    private AnswerVoteEngine answerVoteEngine;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Test
+    void parallelVotesAreAllPersisted() {
+        Question question = new Question();
+        question.setTitle("Concurrent votes");
+        question.setBody("Load test question");
+        question = reactiveMongoTemplate.insert(question).block();
+
+        List<Answer> answers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Answer answer = new Answer();
+            answer.setQuestionId(question.getId());
+            answer.setBody("answer " + i);
+            answers.add(answer);
+        }
+        answers = reactiveMongoTemplate.insertAll(answers).collectList().block();
+
+        // Two upvotes for every downvote, interleaved across answers
+        List<String> answerIds = answers.stream().map(Answer::getId).toList();
+        List<Answer> results = Flux.range(0, VOTES_PER_ANSWER * answerIds.size())
+                .flatMap(i -> answerVoteEngine
+                                .vote(answerIds.get(i % answerIds.size()), (i / answerIds.size()) % 3 == 2 ? -1 : 1)
+                                .subscribeOn(Schedulers.parallel()),
+                        256)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+
+        assertThat(results).hasSize(VOTES_PER_ANSWER * answerIds.size());
+
+        int expectedPerAnswer = 0;
+        for (int i = 0; i < VOTES_PER_ANSWER; i++) {
+            expectedPerAnswer += i % 3 == 2 ? -1 : 1;
+        }
+        for (String answerId : answerIds) {
+            Answer stored = reactiveMongoTemplate.findById(answerId, Answer.class).block();
+            assertThat(stored.getVotes()).isEqualTo(expectedPerAnswer);
+        }
+
+        Question stored = reactiveMongoTemplate.findById(question.getId(), Question.class).block();
+        assertThat(stored.getTotalAnswerVotes()).isEqualTo((long) expectedPerAnswer * answerIds.size());
+        assertThat(answerVoteEngine.stats().get("pendingAnswers")).isEqualTo(0);
+    }
+}
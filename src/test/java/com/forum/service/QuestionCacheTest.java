@@ -0,0 +1,67 @@
+package com.forum.service;
+
+import com.forum.model.Question;
+import com.forum.repository.QuestionRepository;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class QuestionCacheTest {
+
+    private final QuestionRepository repository = mock(QuestionRepository.class);
+
+    private QuestionCache cache() {
+        return new QuestionCache(repository, true, 1 << 20, Duration.ofMinutes(1), new SingleFlightRegistry());
+    }
+
+    @Test
+    void loadStartsOnSubscribe() {
+        AtomicInteger loads = new AtomicInteger();
+        when(repository.findById("q1")).thenReturn(Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return new Question();
+        }));
+        QuestionCache cache = cache();
+
+        Mono<Question> pending = cache.get("q1");
+        assertThat(loads.get()).isZero();
+
+        assertThat(pending.block()).isNotNull();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledCallerDoesNotFailOthersWaitingOnTheSameLoad() {
+        Sinks.One<Question> load = Sinks.one();
+        when(repository.findById("q1")).thenReturn(load.asMono());
+        QuestionCache cache = cache();
+
+        Disposable cancelled = cache.get("q1").subscribe();
+        AtomicReference<Question> received = new AtomicReference<>();
+        AtomicReference<Throwable> failed = new AtomicReference<>();
+        cache.get("q1").subscribe(received::set, failed::set);
+
+        cancelled.dispose();
+        Question question = new Question();
+        load.tryEmitValue(question);
+
+        assertThat(failed.get()).isNull();
+        assertThat(received.get()).isSameAs(question);
+    }
+
+    @Test
+    void nullIdIsEmpty() {
+        assertThat(cache().get(null).block()).isNull();
+        verifyNoInteractions(repository);
+    }
+}